@@ -0,0 +1,129 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator comparing the server in platform and virtual thread mode.
+ *
+ * Cameras post tag frames to /yards/{id}/tags while dashboards poll the yard
+ * tags and the subsidiary. Run it once against a server started with
+ * VIRTUAL_THREADS=false and once with VIRTUAL_THREADS=true, then compare.
+ *
+ * Usage (JDK 21, no build needed):
+ *   java bench/ThreadModeBenchmark.java [baseUrl] [yardId] [subsidiaryId] [cameras] [dashboards] [seconds] [tagsPerFrame]
+ *
+ * Defaults: http://localhost:8080 1 1 200 800 30 20
+ */
+public class ThreadModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = arg(args, 0, "http://localhost:8080");
+        long yardId = Long.parseLong(arg(args, 1, "1"));
+        long subsidiaryId = Long.parseLong(arg(args, 2, "1"));
+        int cameras = Integer.parseInt(arg(args, 3, "200"));
+        int dashboards = Integer.parseInt(arg(args, 4, "800"));
+        int seconds = Integer.parseInt(arg(args, 5, "30"));
+        int tagsPerFrame = Integer.parseInt(arg(args, 6, "20"));
+
+        HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+        Stats cameraStats = new Stats();
+        Stats dashboardStats = new Stats();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        // The generator itself runs on virtual threads so it is never the bottleneck
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < cameras; i++) {
+                workers.submit(() -> {
+                    URI uri = URI.create(baseUrl + "/yards/" + yardId + "/tags");
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(frame(tagsPerFrame)))
+                            .build();
+                        cameraStats.record(client, request);
+                    }
+                });
+            }
+
+            for (int i = 0; i < dashboards; i++) {
+                final boolean pollYard = i % 2 == 0;
+                workers.submit(() -> {
+                    URI uri = pollYard
+                        ? URI.create(baseUrl + "/yards/" + yardId + "/tags")
+                        : URI.create(baseUrl + "/subsidiaries/" + subsidiaryId);
+                    HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+                    while (System.nanoTime() < deadline) dashboardStats.record(client, request);
+                });
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "cameras=%d dashboards=%d duration=%ds%n", cameras, dashboards, seconds);
+        cameraStats.print("camera POST /yards/{id}/tags", seconds);
+        dashboardStats.print("dashboard GET", seconds);
+    }
+
+    private static String frame(int tags) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder body = new StringBuilder("{\"tags\":[");
+        for (int i = 0; i < tags; i++) {
+            if (i > 0) body.append(',');
+            body.append("{\"tagCode\":\"tag16h5_").append(i)
+                .append("\",\"position\":{\"x\":").append(random.nextDouble(400))
+                .append(",\"y\":").append(random.nextDouble(260)).append("}}");
+        }
+        return body.append("]}").toString();
+    }
+
+    private static String arg(String[] args, int index, String fallback) {
+        return args.length > index ? args[index] : fallback;
+    }
+
+    private static class Stats {
+        private final AtomicLong ok = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<Long> latencies = new ArrayList<>();
+
+        void record(HttpClient client, HttpRequest request) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() < 400) ok.incrementAndGet();
+                else failed.incrementAndGet();
+            } catch (Exception ex) {
+                failed.incrementAndGet();
+            }
+            long elapsed = System.nanoTime() - start;
+            synchronized (latencies) {
+                latencies.add(elapsed);
+            }
+        }
+
+        void print(String label, int seconds) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            System.out.printf(Locale.ROOT, "%-30s %10.1f req/s  ok=%d failed=%d  p50=%.1fms p99=%.1fms max=%.1fms%n",
+                label, ok.get() / (double) seconds, ok.get(), failed.get(),
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
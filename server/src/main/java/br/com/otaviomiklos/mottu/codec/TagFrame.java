@@ -0,0 +1,45 @@
+package br.com.otaviomiklos.mottu.codec;
+
+/**
+ * One decoded binary detection frame. Tags are stored column-wise in primitive arrays,
+ * index {@code i} of every array belonging to the same tag.
+ */
+public class TagFrame {
+
+    private final long timestamp;
+    private final int sequence;
+    private final int count;
+    private final short[] families;
+    private final int[] tagIds;
+    private final float[] xs;
+    private final float[] ys;
+
+    TagFrame(long timestamp, int sequence, int count) {
+        this.timestamp = timestamp;
+        this.sequence = sequence;
+        this.count = count;
+        this.families = new short[count];
+        this.tagIds = new int[count];
+        this.xs = new float[count];
+        this.ys = new float[count];
+    }
+
+    public long getTimestamp() { return timestamp; }
+    public int getSequence() { return sequence; }
+    public int getCount() { return count; }
+    public short getFamily(int i) { return families[i]; }
+    public int getTagId(int i) { return tagIds[i]; }
+    public float getX(int i) { return xs[i]; }
+    public float getY(int i) { return ys[i]; }
+
+    // The coordinate columns themselves, so a frame is ingested without copying
+    public float[] getXs() { return xs; }
+    public float[] getYs() { return ys; }
+
+    void set(int i, short family, int tagId, float x, float y) {
+        families[i] = family;
+        tagIds[i] = tagId;
+        xs[i] = x;
+        ys[i] = y;
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.otaviomiklos.mottu.codec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.com.otaviomiklos.mottu.exception.InvalidFrameException;
+
+/**
+ * Decodes the compact binary detection frame accepted by {@code POST /yards/{id}/tags}.
+ * All fields are big-endian:
+ *
+ * <pre>
+ * header  int64 frame timestamp (epoch ms) | int32 sequence | int32 tag count
+ * tag     uint16 family id | uint16 tag id | float32 x | float32 y
+ * </pre>
+ *
+ * The family id indexes {@code mottu.ingestion.tag-families} and the tag code is built as
+ * {@code family_id}, the same code the detector sends in JSON. Codes are kept in a table so
+ * decoding a frame does not allocate a string per tag.
+ */
+@Component
+public class TagFrameCodec {
+
+    public static final String CONTENT_TYPE = "application/vnd.mottu.tags";
+
+    private static final int HEADER_SIZE = 16;
+    private static final int TAG_SIZE = 12;
+    private static final String INVALID_MESSAGE = "Frame de detecções inválido";
+
+    private final String[] families;
+    private volatile String[][] codes;
+
+    public TagFrameCodec(@Value("${mottu.ingestion.tag-families}") String[] families) {
+        this.families = families;
+        this.codes = new String[families.length][0];
+    }
+
+    public TagFrame decode(byte[] body) {
+        if (body == null || body.length < HEADER_SIZE) throw new InvalidFrameException(INVALID_MESSAGE);
+
+        ByteBuffer buffer = ByteBuffer.wrap(body).order(ByteOrder.BIG_ENDIAN);
+        try {
+            long timestamp = buffer.getLong();
+            int sequence = buffer.getInt();
+            int count = buffer.getInt();
+            if (count < 0 || body.length != HEADER_SIZE + (long) count * TAG_SIZE) throw new InvalidFrameException(INVALID_MESSAGE);
+
+            TagFrame frame = new TagFrame(timestamp, sequence, count);
+            for (int i = 0; i < count; i++) {
+                short family = buffer.getShort();
+                int tagId = Short.toUnsignedInt(buffer.getShort());
+                frame.set(i, family, tagId, buffer.getFloat(), buffer.getFloat());
+            }
+            return frame;
+        } catch (BufferUnderflowException ex) {
+            throw new InvalidFrameException(INVALID_MESSAGE);
+        }
+    }
+
+    /**
+     * Tag code of the i-th tag of the frame, or null when its family id is unknown.
+     */
+    public String code(TagFrame frame, int i) {
+        int family = Short.toUnsignedInt(frame.getFamily(i));
+        int tagId = frame.getTagId(i);
+        if (family >= families.length) return null;
+
+        String[] row = codes[family];
+        if (tagId < row.length && row[tagId] != null) return row[tagId];
+        return intern(family, tagId);
+    }
+
+    private synchronized String intern(int family, int tagId) {
+        String[][] current = codes;
+        String[] row = current[family];
+        if (tagId < row.length && row[tagId] != null) return row[tagId];
+
+        String[] grown = row;
+        if (tagId >= row.length) {
+            grown = new String[Math.max(tagId + 1, row.length * 2)];
+            System.arraycopy(row, 0, grown, 0, row.length);
+        } else {
+            grown = row.clone();
+        }
+        grown[tagId] = families[family] + "_" + tagId;
+
+        String[][] next = current.clone();
+        next[family] = grown;
+        codes = next;
+        return grown[tagId];
+    }
+}
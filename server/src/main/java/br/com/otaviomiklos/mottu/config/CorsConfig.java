@@ -5,6 +5,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import br.com.otaviomiklos.mottu.dto.page.CursorPage;
+
 @Configuration
 public class CorsConfig {
     @Bean
@@ -16,6 +18,7 @@ public class CorsConfig {
                         .allowedOrigins("*")
                         .allowedMethods("*")
                         .allowedHeaders("*")
+                        .exposedHeaders(CursorPage.NEXT_CURSOR_HEADER)
                         .allowCredentials(false);
             }
         };
@@ -0,0 +1,31 @@
+package br.com.otaviomiklos.mottu.config;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DetectorClientConfig {
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    @Value("${mottu.detector.connect-timeout}")
+    private long connectTimeout;
+
+    // A single shared client keeps its HTTP/1.1 connections alive and reuses
+    // them across detections instead of opening one socket per image
+    @Bean
+    public HttpClient detectorHttpClient() {
+        HttpClient.Builder client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(connectTimeout));
+
+        if (virtualThreads) client.executor(Executors.newVirtualThreadPerTaskExecutor());
+        return client.build();
+    }
+}
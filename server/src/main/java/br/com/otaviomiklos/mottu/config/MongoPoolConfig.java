@@ -0,0 +1,32 @@
+package br.com.otaviomiklos.mottu.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoPoolConfig {
+
+    @Value("${mottu.mongo.pool.max-size}")
+    private int maxSize;
+
+    @Value("${mottu.mongo.pool.min-size}")
+    private int minSize;
+
+    @Value("${mottu.mongo.pool.max-wait-time}")
+    private long maxWaitTime;
+
+    // With virtual threads there is no request thread cap anymore, so the
+    // pool is what bounds concurrent Mongo work. Callers past maxSize wait
+    // at most maxWaitTime instead of queueing forever.
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer() {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+            .maxSize(maxSize)
+            .minSize(minSize)
+            .maxWaitTime(maxWaitTime, TimeUnit.MILLISECONDS));
+    }
+}
@@ -1,9 +1,11 @@
 package br.com.otaviomiklos.mottu.controller;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,11 +17,17 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import br.com.otaviomiklos.mottu.dto.apriltag.ApriltagRequest;
 import br.com.otaviomiklos.mottu.dto.apriltag.ApriltagResponse;
-import br.com.otaviomiklos.mottu.exception.UnableToProcessImage;
+import br.com.otaviomiklos.mottu.dto.apriltag.DetectionJobResponse;
+import br.com.otaviomiklos.mottu.dto.page.CursorPage;
 import br.com.otaviomiklos.mottu.service.ApriltagService;
+import br.com.otaviomiklos.mottu.service.BatchDetectionService;
+import br.com.otaviomiklos.mottu.service.DetectionJobService;
 import br.com.otaviomiklos.mottu.service.ImageSenderService;
 import jakarta.validation.Valid;
 
@@ -33,6 +41,12 @@ public class ApriltagController {
     @Autowired
     private ImageSenderService imageService;
 
+    @Autowired
+    private BatchDetectionService batchService;
+
+    @Autowired
+    private DetectionJobService jobService;
+
     @PostMapping
     public ResponseEntity<ApriltagResponse> create(@Valid @RequestBody ApriltagRequest request) {
         ApriltagResponse response = service.save(request);
@@ -40,9 +54,15 @@ public class ApriltagController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ApriltagResponse>> readll() {
-        List<ApriltagResponse> responses = service.findAll();
-        return new ResponseEntity<>(responses, HttpStatus.OK);
+    public ResponseEntity<List<ApriltagResponse>> readll(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit) {
+        CursorPage<ApriltagResponse> page = service.findAll(after, limit);
+        return new ResponseEntity<>(page.getItems(), page.headers(), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = service.exportAll();
+        return new ResponseEntity<>(body, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
@@ -65,14 +85,32 @@ public class ApriltagController {
 
     // Tag Recognition
     @PostMapping("/detect")
-    public ResponseEntity<String> recognize(@RequestParam("file") MultipartFile file) {
-        ResponseEntity<String> response;
-        try {
-            response = imageService.sendImage(file.getBytes(), file.getOriginalFilename());
-        } catch (Exception ex) {
-            throw new UnableToProcessImage("Não foi possível processar a imagem");
-        }
-        return response;
+    public CompletableFuture<ResponseEntity<String>> recognize(@RequestParam("file") MultipartFile file) {
+        return imageService.sendImage(file);
+    }
+
+    @PostMapping("/detect/batch")
+    public ResponseEntity<ResponseBodyEmitter> recognizeBatch(@RequestParam("files") List<MultipartFile> files) {
+        ResponseBodyEmitter emitter = batchService.detect(files);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    // Detection Jobs
+    @PostMapping("/detect/jobs")
+    public ResponseEntity<DetectionJobResponse> submitDetection(@RequestParam("file") MultipartFile file) {
+        DetectionJobResponse response = jobService.submit(file);
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/detect/jobs/{id}")
+    public ResponseEntity<DetectionJobResponse> readDetection(@PathVariable String id) {
+        DetectionJobResponse response = jobService.findById(id);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/detect/jobs/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDetection(@PathVariable String id) {
+        return jobService.subscribe(id);
     }
 
 }
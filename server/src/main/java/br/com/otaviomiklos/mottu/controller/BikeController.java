@@ -14,12 +14,18 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import br.com.otaviomiklos.mottu.dto.analytics.BikeDwellResponse;
+import br.com.otaviomiklos.mottu.dto.bike.BikeListResponse;
 import br.com.otaviomiklos.mottu.dto.bike.BikeRequest;
 import br.com.otaviomiklos.mottu.dto.bike.BikeDetailsDTO;
+import br.com.otaviomiklos.mottu.dto.history.BikeTrackResponse;
 import br.com.otaviomiklos.mottu.enums.AreaStatus;
 import br.com.otaviomiklos.mottu.enums.BikeModel;
+import br.com.otaviomiklos.mottu.service.BikeDwellTracker;
 import br.com.otaviomiklos.mottu.service.BikeService;
+import br.com.otaviomiklos.mottu.service.TagHistoryService;
 import jakarta.validation.Valid;
 
 @RestController
@@ -29,6 +35,12 @@ public class BikeController {
     @Autowired
     private BikeService service;
 
+    @Autowired
+    private TagHistoryService historyService;
+
+    @Autowired
+    private BikeDwellTracker dwellTracker;
+
     @PostMapping
     public ResponseEntity<BikeDetailsDTO> create(@Valid @RequestBody BikeRequest request) {
         BikeDetailsDTO bike = service.save(request);
@@ -36,11 +48,17 @@ public class BikeController {
     }
 
     @GetMapping
-    public ResponseEntity<List<BikeDetailsDTO>> readll() {
-        List<BikeDetailsDTO> bikes = service.findAll();
+    public ResponseEntity<BikeListResponse> readll(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit) {
+        BikeListResponse bikes = service.findAll(after, limit);
         return new ResponseEntity<>(bikes, HttpStatus.OK);
     }
 
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = service.exportAll();
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+
     @GetMapping("/plate/{plate}")
     public ResponseEntity<BikeDetailsDTO> readByPlate(@PathVariable String plate) {
         BikeDetailsDTO bike = service.findByPlate(plate);
@@ -71,6 +89,18 @@ public class BikeController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @GetMapping("/{id}/track")
+    public ResponseEntity<BikeTrackResponse> readTrack(@PathVariable Long id, @RequestParam long from, @RequestParam long to, @RequestParam(required = false) Long resolution) {
+        BikeTrackResponse track = historyService.findTrack(id, from, to, resolution);
+        return new ResponseEntity<>(track, HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/dwell")
+    public ResponseEntity<BikeDwellResponse> readDwell(@PathVariable Long id) {
+        BikeDwellResponse dwell = dwellTracker.findByBike(id);
+        return new ResponseEntity<>(dwell, HttpStatus.OK);
+    }
+
     // Link tag
     @PostMapping("/{plate}/tag/{tagCode}/subsidiary/{subsidiaryId}")
     public ResponseEntity<BikeDetailsDTO> linkBikeToTag(@PathVariable String plate, @PathVariable String tagCode, @PathVariable Long subsidiaryId) {
@@ -0,0 +1,35 @@
+package br.com.otaviomiklos.mottu.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.otaviomiklos.mottu.dto.cache.CacheStatsResponse;
+import br.com.otaviomiklos.mottu.service.DetectionCache;
+import br.com.otaviomiklos.mottu.service.GeometryCache;
+
+@RestController
+@RequestMapping("/caches")
+public class CacheController {
+
+    @Autowired
+    private GeometryCache geometryCache;
+
+    @Autowired
+    private DetectionCache detectionCache;
+
+    @GetMapping
+    public ResponseEntity<Map<String, CacheStatsResponse>> readStats() {
+        Map<String, CacheStatsResponse> responses = new LinkedHashMap<>();
+        geometryCache.stats().forEach((name, stats) -> responses.put("geometry." + name, stats));
+        responses.put("detection", detectionCache.stats());
+        return new ResponseEntity<>(responses, HttpStatus.OK);
+    }
+
+}
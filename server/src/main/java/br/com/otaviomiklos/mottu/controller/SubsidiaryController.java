@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,11 +13,18 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import br.com.otaviomiklos.mottu.dto.analytics.SubsidiaryOccupancyResponse;
+import br.com.otaviomiklos.mottu.dto.apriltag.ApriltagResponse;
+import br.com.otaviomiklos.mottu.dto.page.CursorPage;
 import br.com.otaviomiklos.mottu.dto.subsidiary.SubsidiaryRequest;
 import br.com.otaviomiklos.mottu.dto.subsidiary.SubsidiaryResponse;
 import br.com.otaviomiklos.mottu.dto.subsidiary.SubsidiaryTags;
+import br.com.otaviomiklos.mottu.service.AreaOccupancyCounter;
 import br.com.otaviomiklos.mottu.service.SubsidiaryService;
 import jakarta.validation.Valid;
 
@@ -27,6 +35,9 @@ public class SubsidiaryController {
     @Autowired
     private SubsidiaryService service;
 
+    @Autowired
+    private AreaOccupancyCounter occupancyCounter;
+
     @PostMapping
     public ResponseEntity<SubsidiaryResponse> create(@Valid @RequestBody SubsidiaryRequest request) {
         SubsidiaryResponse response = service.save(request);
@@ -34,9 +45,15 @@ public class SubsidiaryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<SubsidiaryResponse>> readll() {
-        List<SubsidiaryResponse> responses = service.findAll();
-        return new ResponseEntity<>(responses, HttpStatus.OK);
+    public ResponseEntity<List<SubsidiaryResponse>> readll(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit) {
+        CursorPage<SubsidiaryResponse> page = service.findAll(after, limit);
+        return new ResponseEntity<>(page.getItems(), page.headers(), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = service.exportAll();
+        return new ResponseEntity<>(body, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
@@ -57,10 +74,27 @@ public class SubsidiaryController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @GetMapping("{id}/apriltags")
+    public ResponseEntity<List<ApriltagResponse>> readTags(@PathVariable Long id, @RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit) {
+        CursorPage<ApriltagResponse> page = service.findTags(id, after, limit);
+        return new ResponseEntity<>(page.getItems(), page.headers(), HttpStatus.OK);
+    }
+
     @GetMapping("{id}/tags")
     public ResponseEntity<SubsidiaryTags> readSubsidiaryYardTags(@PathVariable Long id) {
         SubsidiaryTags response = service.findSubsidiaryYardTags(id);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @GetMapping(value = "{id}/tags/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSubsidiaryYardTags(@PathVariable Long id) {
+        return service.subscribeSubsidiaryYardTags(id);
+    }
+
+    @GetMapping("{id}/occupancy")
+    public ResponseEntity<SubsidiaryOccupancyResponse> readOccupancy(@PathVariable Long id) {
+        SubsidiaryOccupancyResponse response = occupancyCounter.findBySubsidiary(id);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
 }
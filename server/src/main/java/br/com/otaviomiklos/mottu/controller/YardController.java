@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,13 +13,30 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import br.com.otaviomiklos.mottu.codec.TagFrameCodec;
+import br.com.otaviomiklos.mottu.dto.analytics.BikeDwellResponse;
+import br.com.otaviomiklos.mottu.dto.analytics.HeatmapResponse;
+import br.com.otaviomiklos.mottu.dto.analytics.MisplacedBikeResponse;
+import br.com.otaviomiklos.mottu.dto.analytics.YardOccupancyResponse;
+import br.com.otaviomiklos.mottu.dto.camera.CameraDetectionRequest;
+import br.com.otaviomiklos.mottu.dto.history.YardHistoryResponse;
+import br.com.otaviomiklos.mottu.dto.page.CursorPage;
 import br.com.otaviomiklos.mottu.dto.yard.YardRequest;
 import br.com.otaviomiklos.mottu.dto.yard.YardResponse;
 import br.com.otaviomiklos.mottu.dto.yard.YardCameraResponse;
 import br.com.otaviomiklos.mottu.dto.yard.YardMongoRequest;
 import br.com.otaviomiklos.mottu.dto.yard.YardMongoResponse;
+import br.com.otaviomiklos.mottu.enums.AreaStatus;
+import br.com.otaviomiklos.mottu.service.AreaOccupancyCounter;
+import br.com.otaviomiklos.mottu.service.BikeDwellTracker;
+import br.com.otaviomiklos.mottu.service.HeatmapService;
+import br.com.otaviomiklos.mottu.service.MisplacedBikeTracker;
+import br.com.otaviomiklos.mottu.service.TagHistoryService;
 import br.com.otaviomiklos.mottu.service.YardService;
 import jakarta.validation.Valid;
 
@@ -28,6 +46,24 @@ public class YardController {
 
     @Autowired
     private YardService service;
+
+    @Autowired
+    private TagFrameCodec frameCodec;
+
+    @Autowired
+    private TagHistoryService historyService;
+
+    @Autowired
+    private BikeDwellTracker dwellTracker;
+
+    @Autowired
+    private HeatmapService heatmapService;
+
+    @Autowired
+    private MisplacedBikeTracker misplacedTracker;
+
+    @Autowired
+    private AreaOccupancyCounter occupancyCounter;
  
     @PostMapping
     public ResponseEntity<YardResponse> create(@Valid @RequestBody YardRequest request) {
@@ -36,9 +72,15 @@ public class YardController {
     }
 
     @GetMapping
-    public ResponseEntity<List<YardResponse>> readll() {
-        List<YardResponse> responses = service.findAll();
-        return new ResponseEntity<>(responses, HttpStatus.OK);
+    public ResponseEntity<List<YardResponse>> readll(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit) {
+        CursorPage<YardResponse> page = service.findAll(after, limit);
+        return new ResponseEntity<>(page.getItems(), page.headers(), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = service.exportAll();
+        return new ResponseEntity<>(body, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
@@ -66,12 +108,59 @@ public class YardController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @PostMapping(value = "/{id}/tags", consumes = TagFrameCodec.CONTENT_TYPE)
+    public ResponseEntity<YardMongoResponse> updateTagPositionsFromFrame(@RequestBody byte[] body, @PathVariable Long id, @RequestParam(required = false) Long cameraId) {
+        YardMongoResponse response = service.postOrUpdatePositions(frameCodec.decode(body), id, cameraId);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PostMapping("/{id}/cameras/{cameraId}/tags")
+    public ResponseEntity<YardMongoResponse> updateTagPositionsFromCamera(@Valid @RequestBody CameraDetectionRequest request, @PathVariable Long id, @PathVariable Long cameraId) {
+        YardMongoResponse response = service.postPixelPositions(request, id, cameraId);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @GetMapping("/{id}/tags")
     public ResponseEntity<YardMongoResponse> readTags(@PathVariable Long id) {
         YardMongoResponse response = service.readAllFromYard(id);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @GetMapping(value = "/{id}/tags/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTags(@PathVariable Long id) {
+        return service.subscribeTags(id);
+    }
+
+    @GetMapping("/{id}/history")
+    public ResponseEntity<YardHistoryResponse> readHistory(@PathVariable Long id, @RequestParam long at, @RequestParam(required = false) Long window) {
+        YardHistoryResponse response = historyService.findYardAt(id, at, window);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/dwell")
+    public ResponseEntity<List<BikeDwellResponse>> readDwell(@PathVariable Long id, @RequestParam(required = false) AreaStatus status) {
+        List<BikeDwellResponse> response = dwellTracker.findByYard(id, status);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/heatmap")
+    public ResponseEntity<HeatmapResponse> readHeatmap(@PathVariable Long id, @RequestParam(required = false) Integer zoom) {
+        HeatmapResponse response = heatmapService.findByYard(id, zoom);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/misplaced")
+    public ResponseEntity<List<MisplacedBikeResponse>> readMisplaced(@PathVariable Long id) {
+        List<MisplacedBikeResponse> response = misplacedTracker.findByYard(id);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/occupancy")
+    public ResponseEntity<YardOccupancyResponse> readOccupancy(@PathVariable Long id) {
+        YardOccupancyResponse response = occupancyCounter.findByYard(id);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     // Camera Related
     @GetMapping("/{id}/cameras")
     public ResponseEntity<YardCameraResponse> readCameras(@PathVariable Long id) {
@@ -0,0 +1,20 @@
+package br.com.otaviomiklos.mottu.dto.analytics;
+
+import java.util.Map;
+
+import br.com.otaviomiklos.mottu.enums.AreaStatus;
+import br.com.otaviomiklos.mottu.enums.BikeModel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class AreaOccupancyResponse {
+
+    // Null for the bikes outside every area
+    private Long areaId;
+    private int total;
+    private Map<BikeModel, Map<AreaStatus, Integer>> counts;
+}
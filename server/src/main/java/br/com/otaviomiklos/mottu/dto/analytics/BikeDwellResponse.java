@@ -0,0 +1,30 @@
+package br.com.otaviomiklos.mottu.dto.analytics;
+
+import java.util.Map;
+
+import br.com.otaviomiklos.mottu.enums.AreaStatus;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BikeDwellResponse {
+
+    private Long bikeId;
+    private AreaStatus bikeStatus;
+    private Long yardId;
+    // Status of the area the bike was last seen in, null when outside every area
+    private AreaStatus zone;
+    private Long zoneSince;
+    private Long lastSeen;
+    private Long sinceLastSeen;
+
+    // Accumulated time (ms) per area status, plus time outside every area
+    private Map<AreaStatus, Long> dwell;
+    private long outsideAreas;
+    // Accumulated time (ms) spent in an area that does not match the bike status
+    private long misplaced;
+    private Long misplacedSince;
+}
@@ -0,0 +1,24 @@
+package br.com.otaviomiklos.mottu.dto.analytics;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class HeatmapResponse {
+
+    private Long yardId;
+    private int zoom;
+    private float originX;
+    private float originY;
+    private float cellSize;
+    private int cols;
+    private int rows;
+    // Sightings per cell, row-major from the origin
+    private long[] counts;
+    private long max;
+    private long total;
+    private long since;
+}
@@ -0,0 +1,19 @@
+package br.com.otaviomiklos.mottu.dto.analytics;
+
+import br.com.otaviomiklos.mottu.enums.MisplacedTransition;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MisplacedBikeChange {
+
+    private Long yardId;
+    private MisplacedTransition transition;
+    private MisplacedBikeResponse bike;
+    private long timestamp;
+}
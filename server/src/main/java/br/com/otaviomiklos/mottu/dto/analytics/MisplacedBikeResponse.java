@@ -0,0 +1,24 @@
+package br.com.otaviomiklos.mottu.dto.analytics;
+
+import br.com.otaviomiklos.mottu.entity.Point;
+import br.com.otaviomiklos.mottu.enums.AreaStatus;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class MisplacedBikeResponse {
+
+    private Long bikeId;
+    private String plate;
+    private AreaStatus bikeStatus;
+    private String tagCode;
+    private Long areaId;
+    private AreaStatus areaStatus;
+    private Point position;
+    // When the bike was first seen in the wrong area
+    private long since;
+    private long lastSeen;
+}
@@ -0,0 +1,21 @@
+package br.com.otaviomiklos.mottu.dto.analytics;
+
+import java.util.List;
+import java.util.Map;
+
+import br.com.otaviomiklos.mottu.enums.AreaStatus;
+import br.com.otaviomiklos.mottu.enums.BikeModel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class SubsidiaryOccupancyResponse {
+
+    private Long subsidiaryId;
+    private int total;
+    private Map<BikeModel, Map<AreaStatus, Integer>> counts;
+    private List<YardOccupancyResponse> yards;
+}
@@ -0,0 +1,23 @@
+package br.com.otaviomiklos.mottu.dto.analytics;
+
+import java.util.List;
+import java.util.Map;
+
+import br.com.otaviomiklos.mottu.enums.AreaStatus;
+import br.com.otaviomiklos.mottu.enums.BikeModel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class YardOccupancyResponse {
+
+    private Long yardId;
+    private int total;
+    private Map<BikeModel, Map<AreaStatus, Integer>> counts;
+    // Per-area breakdown, left out of subsidiary aggregates
+    private List<AreaOccupancyResponse> areas;
+    private AreaOccupancyResponse outsideAreas;
+}
@@ -1,11 +1,13 @@
 package br.com.otaviomiklos.mottu.dto.apriltag;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+@EqualsAndHashCode
 @NoArgsConstructor
 public class ApriltagResponse {
 
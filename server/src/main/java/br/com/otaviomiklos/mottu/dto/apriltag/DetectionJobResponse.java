@@ -0,0 +1,20 @@
+package br.com.otaviomiklos.mottu.dto.apriltag;
+
+import br.com.otaviomiklos.mottu.enums.DetectionJobStatus;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class DetectionJobResponse {
+
+    private String id;
+    private String filename;
+    private DetectionJobStatus status;
+    private String tagCode;
+    private String error;
+    private long createdAt;
+    private Long finishedAt;
+}
@@ -0,0 +1,19 @@
+package br.com.otaviomiklos.mottu.dto.apriltag;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetectionResult {
+
+    private int index;
+    private String filename;
+    private int status;
+    private String tagCode;
+    private String error;
+}
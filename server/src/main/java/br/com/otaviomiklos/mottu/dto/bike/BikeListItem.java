@@ -0,0 +1,23 @@
+package br.com.otaviomiklos.mottu.dto.bike;
+
+import br.com.otaviomiklos.mottu.enums.AreaStatus;
+import br.com.otaviomiklos.mottu.enums.BikeModel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BikeListItem {
+
+    private Long id;
+    private String plate;
+    private String chassis;
+    private BikeModel model;
+    private AreaStatus status;
+    private String tagCode;
+    private Long yardId;
+}
@@ -0,0 +1,21 @@
+package br.com.otaviomiklos.mottu.dto.bike;
+
+import java.util.List;
+import java.util.Map;
+
+import br.com.otaviomiklos.mottu.dto.yard.YardSummary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BikeListResponse {
+
+    private List<BikeListItem> bikes;
+    private Map<Long, YardSummary> yards;
+    private Long nextCursor;
+}
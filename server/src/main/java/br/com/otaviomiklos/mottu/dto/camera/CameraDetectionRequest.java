@@ -0,0 +1,29 @@
+package br.com.otaviomiklos.mottu.dto.camera;
+
+import java.util.List;
+
+import br.com.otaviomiklos.mottu.dto.tagPosition.PixelTagRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CameraDetectionRequest {
+
+    @Valid
+    private List<PixelTagRequest> tags;
+
+    // Size of the frame the pixels were detected in. Without it the pixels are taken to be
+    // in the calibration canvas the camera's transform points were clicked on
+    @Positive(message = "A largura do quadro deve ser positiva")
+    private Integer frameWidth;
+
+    @Positive(message = "A altura do quadro deve ser positiva")
+    private Integer frameHeight;
+}
@@ -18,4 +18,5 @@ public class CameraResponse {
     private String urlAccess;
     private List<PointResponse> transformPoints;
     private List<PointResponse> yardPoints;
+    private double[][] homography;
 }
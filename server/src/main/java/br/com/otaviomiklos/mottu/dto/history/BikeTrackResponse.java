@@ -0,0 +1,21 @@
+package br.com.otaviomiklos.mottu.dto.history;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BikeTrackResponse {
+
+    private Long bikeId;
+    private String tagCode;
+    private long from;
+    private long to;
+    // Width (ms) of the buckets the track was downsampled to
+    private long resolution;
+    private List<TrackPointResponse> points;
+}
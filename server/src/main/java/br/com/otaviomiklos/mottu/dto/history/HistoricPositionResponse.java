@@ -0,0 +1,19 @@
+package br.com.otaviomiklos.mottu.dto.history;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoricPositionResponse {
+
+    private String tagCode;
+    private long timestamp;
+    private float x;
+    private float y;
+    private Long cameraId;
+}
@@ -0,0 +1,18 @@
+package br.com.otaviomiklos.mottu.dto.history;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrackPointResponse {
+
+    private long timestamp;
+    private Long yardId;
+    private float x;
+    private float y;
+}
@@ -0,0 +1,17 @@
+package br.com.otaviomiklos.mottu.dto.history;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class YardHistoryResponse {
+
+    private Long yardId;
+    private long at;
+    private List<HistoricPositionResponse> tags;
+}
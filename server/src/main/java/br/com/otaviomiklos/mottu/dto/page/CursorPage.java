@@ -0,0 +1,28 @@
+package br.com.otaviomiklos.mottu.dto.page;
+
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<T> items;
+    private Long nextCursor;
+
+    public HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) headers.set(NEXT_CURSOR_HEADER, nextCursor.toString());
+        return headers;
+    }
+}
@@ -18,4 +18,5 @@ public class SubsidiaryResponse {
     private String address;
     private List<YardResponse> yards;
     private List<ApriltagResponse> tags;
+    private Long nextTagsCursor;
 }
\ No newline at end of file
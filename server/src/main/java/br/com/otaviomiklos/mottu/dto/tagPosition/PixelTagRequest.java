@@ -0,0 +1,24 @@
+package br.com.otaviomiklos.mottu.dto.tagPosition;
+
+import br.com.otaviomiklos.mottu.dto.point.PointRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PixelTagRequest {
+
+    @NotBlank(message = "O código da tag é obrigatório")
+    private String tagCode;
+
+    @Valid
+    @NotNull(message = "O centro da tag na imagem é obrigatório")
+    private PointRequest pixel;
+}
@@ -0,0 +1,19 @@
+package br.com.otaviomiklos.mottu.dto.tagPosition;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagPositionDelta {
+
+    private Long yardId;
+    private List<TagPositionResponse> changed;
+    private List<String> removed;
+}
@@ -5,12 +5,14 @@ import br.com.otaviomiklos.mottu.dto.bike.BikeSummaryDTO;
 import br.com.otaviomiklos.mottu.entity.Point;
 import br.com.otaviomiklos.mottu.enums.AreaStatus;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+@EqualsAndHashCode
 @NoArgsConstructor
 @AllArgsConstructor
 public class TagPositionResponse {
@@ -18,6 +20,7 @@ public class TagPositionResponse {
     private ApriltagResponse tag;
     private BikeSummaryDTO bike;
     private Point position;
+    private Long areaId;
     private AreaStatus areaStatus;
     private boolean isInRightArea;
 }
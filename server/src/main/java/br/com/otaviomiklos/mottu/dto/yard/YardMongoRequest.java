@@ -17,4 +17,7 @@ public class YardMongoRequest {
     
     @Valid
     private List<TagPositionRequest> tags;
+
+    // Camera that produced the detections, if any
+    private Long cameraId;
 }
@@ -0,0 +1,16 @@
+package br.com.otaviomiklos.mottu.dto.yard;
+
+import br.com.otaviomiklos.mottu.dto.subsidiary.SubsidiarySummary;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class YardSummary {
+
+    private Long id;
+    private String name;
+    private SubsidiarySummary subsidiary;
+}
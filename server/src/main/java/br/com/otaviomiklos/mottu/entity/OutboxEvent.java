@@ -0,0 +1,66 @@
+package br.com.otaviomiklos.mottu.entity;
+
+import br.com.otaviomiklos.mottu.enums.OutboxAggregate;
+import br.com.otaviomiklos.mottu.enums.OutboxOperation;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "TB_MOTTU_OUTBOX", indexes = {
+    @Index(name = "idx_outbox_ready", columnList = "failed, available_at"),
+    @Index(name = "idx_outbox_aggregate_id", columnList = "aggregate_id")
+})
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate", nullable = false)
+    private OutboxAggregate aggregate;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "yard_id")
+    private Long yardId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false)
+    private OutboxOperation operation;
+
+    @Lob
+    @Column(name = "payload", columnDefinition = "LONGTEXT")
+    private String payload;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "failed", nullable = false)
+    private boolean failed;
+
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+
+    @Column(name = "available_at", nullable = false)
+    private long availableAt;
+}
@@ -0,0 +1,31 @@
+package br.com.otaviomiklos.mottu.entity.yard;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Document(collection = "CL_MOTTU_HEATMAP")
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class HeatmapSnapshot {
+
+    @Id
+    private String mongoId;
+
+    @Indexed(unique = true)
+    private Long mysqlId;
+    private float originX;
+    private float originY;
+    private float cellSize;
+    private int cols;
+    private int rows;
+    private long[] counts;
+    private long since;
+    private long updatedAt;
+}
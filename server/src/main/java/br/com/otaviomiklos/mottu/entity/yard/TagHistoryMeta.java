@@ -0,0 +1,18 @@
+package br.com.otaviomiklos.mottu.entity.yard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Bucketing key of the position history, one series per yard and tag
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagHistoryMeta {
+
+    private Long subsidiaryId;
+    private Long yardId;
+    private String tagCode;
+}
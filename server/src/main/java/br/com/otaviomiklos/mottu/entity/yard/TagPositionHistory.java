@@ -0,0 +1,30 @@
+package br.com.otaviomiklos.mottu.entity.yard;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Document(collection = TagPositionHistory.COLLECTION)
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class TagPositionHistory {
+
+    public static final String COLLECTION = "CL_MOTTU_TAG_HISTORY";
+    public static final String TIME_FIELD = "timestamp";
+    public static final String META_FIELD = "meta";
+
+    @Id
+    private String mongoId;
+    private Date timestamp;
+    private TagHistoryMeta meta;
+    private float x;
+    private float y;
+    private Long cameraId;
+}
@@ -0,0 +1,19 @@
+package br.com.otaviomiklos.mottu.entity.yard;
+
+import br.com.otaviomiklos.mottu.entity.Point;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagSighting {
+
+    private String tagCode;
+    private Point position;
+    private Long cameraId;
+    private long timestamp;
+}
@@ -0,0 +1,31 @@
+package br.com.otaviomiklos.mottu.entity.yard;
+
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import br.com.otaviomiklos.mottu.entity.Point;
+import br.com.otaviomiklos.mottu.entity.area.AreaMongo;
+import br.com.otaviomiklos.mottu.entity.camera.CameraMongo;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Document(collection = "CL_MOTTU_YARD_GEOMETRY")
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class YardGeometry {
+
+    @Id
+    private String mongoId;
+
+    @Indexed(unique = true)
+    private Long mysqlId;
+    private List<Point> boundary;
+    private List<AreaMongo> areas;
+    private List<CameraMongo> cameras;
+}
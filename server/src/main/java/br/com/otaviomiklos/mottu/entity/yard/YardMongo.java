@@ -1,13 +1,12 @@
 package br.com.otaviomiklos.mottu.entity.yard;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionRequest;
 import br.com.otaviomiklos.mottu.entity.Point;
-import br.com.otaviomiklos.mottu.entity.camera.Camera;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -22,7 +21,9 @@ public class YardMongo {
     @Id
     private String mongoId;
     private Long mysqlId;
-    private List<Camera> cameras;
     private List<Point> boundary;
-    private List<TagPositionRequest> tags;
+
+    // Latest sighting of each tag, keyed by the escaped tag code so cameras can set
+    // their own entries without touching the rest
+    private Map<String, TagSighting> positions;
 }
@@ -0,0 +1,16 @@
+package br.com.otaviomiklos.mottu.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum DetectionJobStatus {
+    QUEUED("Queued"),
+    RUNNING("Running"),
+    FOUND("Found"),
+    NOT_FOUND("Not found"),
+    FAILED("Failed");
+
+    private String status;
+}
@@ -0,0 +1,13 @@
+package br.com.otaviomiklos.mottu.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum MisplacedTransition {
+    ENTERED("Entered"),
+    LEFT("Left");
+
+    private String transition;
+}
@@ -0,0 +1,17 @@
+package br.com.otaviomiklos.mottu.enums;
+
+import br.com.otaviomiklos.mottu.entity.area.AreaMongo;
+import br.com.otaviomiklos.mottu.entity.camera.CameraMongo;
+import br.com.otaviomiklos.mottu.entity.yard.YardMongo;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum OutboxAggregate {
+    YARD(YardMongo.class),
+    AREA(AreaMongo.class),
+    CAMERA(CameraMongo.class);
+
+    private Class<?> document;
+}
@@ -0,0 +1,6 @@
+package br.com.otaviomiklos.mottu.enums;
+
+public enum OutboxOperation {
+    UPSERT,
+    DELETE
+}
@@ -0,0 +1,17 @@
+package br.com.otaviomiklos.mottu.event;
+
+import br.com.otaviomiklos.mottu.dto.analytics.MisplacedBikeChange;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a bike starts or stops being in an area that does not match its
+ * status, so subscribers see the transitions instead of diffing tag lists.
+ */
+@Getter
+@AllArgsConstructor
+public class MisplacedBikeEvent {
+
+    private Long subsidiaryId;
+    private MisplacedBikeChange change;
+}
@@ -0,0 +1,24 @@
+package br.com.otaviomiklos.mottu.event;
+
+import java.util.List;
+
+import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published once per tag ingestion with the resolved positions of the yard, so
+ * side effects run on the write path instead of on every read. {@code tags} holds every
+ * tag currently in the yard, {@code detected} the ones whose sighting this ingestion
+ * accepted, so listeners that only care about fresh sightings never walk the whole yard.
+ */
+@Getter
+@AllArgsConstructor
+public class YardTagsUpdatedEvent {
+
+    private Long yardId;
+    private Long subsidiaryId;
+    private List<TagPositionResponse> tags;
+    private long timestamp;
+    private List<TagPositionResponse> detected;
+}
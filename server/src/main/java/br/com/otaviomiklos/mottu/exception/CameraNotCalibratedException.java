@@ -0,0 +1,7 @@
+package br.com.otaviomiklos.mottu.exception;
+
+public class CameraNotCalibratedException extends RuntimeException {
+    public CameraNotCalibratedException(String message) {
+        super(message);
+    }
+}
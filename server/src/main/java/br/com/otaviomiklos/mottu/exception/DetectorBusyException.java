@@ -0,0 +1,7 @@
+package br.com.otaviomiklos.mottu.exception;
+
+public class DetectorBusyException extends RuntimeException {
+    public DetectorBusyException(String message) {
+        super(message);
+    }
+}
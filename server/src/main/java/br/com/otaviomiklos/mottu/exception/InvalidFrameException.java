@@ -0,0 +1,7 @@
+package br.com.otaviomiklos.mottu.exception;
+
+public class InvalidFrameException extends RuntimeException {
+    public InvalidFrameException(String message) {
+        super(message);
+    }
+}
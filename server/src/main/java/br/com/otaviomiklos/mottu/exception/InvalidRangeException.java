@@ -0,0 +1,7 @@
+package br.com.otaviomiklos.mottu.exception;
+
+public class InvalidRangeException extends RuntimeException {
+    public InvalidRangeException(String message) {
+        super(message);
+    }
+}
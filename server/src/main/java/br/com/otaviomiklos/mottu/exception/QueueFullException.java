@@ -0,0 +1,14 @@
+package br.com.otaviomiklos.mottu.exception;
+
+import lombok.Getter;
+
+@Getter
+public class QueueFullException extends RuntimeException {
+
+    private final long retryAfter;
+
+    public QueueFullException(String message, long retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
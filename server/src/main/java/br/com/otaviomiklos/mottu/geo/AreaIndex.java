@@ -0,0 +1,131 @@
+package br.com.otaviomiklos.mottu.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import br.com.otaviomiklos.mottu.entity.Point;
+import br.com.otaviomiklos.mottu.entity.area.AreaMongo;
+
+/**
+ * Uniform grid over the bounding boxes of a yard's area polygons. A lookup only runs
+ * {@link AreaMongo#checkInside(Point)} on the areas whose box covers the point's cell,
+ * and keeps the original area order so the first matching area still wins.
+ */
+public class AreaIndex {
+
+    private static final int MAX_GRID_SIZE = 64;
+    private static final AreaIndex EMPTY = new AreaIndex(List.of());
+
+    private final List<AreaMongo> areas;
+    private final float[] minX;
+    private final float[] minY;
+    private final float[] maxX;
+    private final float[] maxY;
+
+    private float originX;
+    private float originY;
+    private float limitX;
+    private float limitY;
+    private float cellWidth;
+    private float cellHeight;
+    private int cols;
+    private int rows;
+    private int[][] cells;
+
+    private AreaIndex(List<AreaMongo> areas) {
+        this.areas = areas;
+        this.minX = new float[areas.size()];
+        this.minY = new float[areas.size()];
+        this.maxX = new float[areas.size()];
+        this.maxY = new float[areas.size()];
+    }
+
+    public static AreaIndex empty() {
+        return EMPTY;
+    }
+
+    public static AreaIndex of(List<AreaMongo> candidates) {
+        List<AreaMongo> areas = candidates.stream()
+            .filter(area -> area.getBoundary() != null && area.getBoundary().size() >= 3)
+            .toList();
+        if (areas.isEmpty()) return EMPTY;
+
+        AreaIndex index = new AreaIndex(areas);
+        index.build();
+        return index;
+    }
+
+    public Optional<AreaMongo> find(Point point) {
+        if (cells == null) return Optional.empty();
+
+        float x = point.getX();
+        float y = point.getY();
+        if (x < originX || y < originY || x > limitX || y > limitY) return Optional.empty();
+
+        int col = clamp((int) ((x - originX) / cellWidth), cols);
+        int row = clamp((int) ((y - originY) / cellHeight), rows);
+        for (int i : cells[row * cols + col]) {
+            if (x < minX[i] || x > maxX[i] || y < minY[i] || y > maxY[i]) continue;
+            if (areas.get(i).checkInside(point)) return Optional.of(areas.get(i));
+        }
+        return Optional.empty();
+    }
+
+    public int size() {
+        return areas.size();
+    }
+
+    private void build() {
+        float boundsMinX = Float.POSITIVE_INFINITY, boundsMinY = Float.POSITIVE_INFINITY;
+        float boundsMaxX = Float.NEGATIVE_INFINITY, boundsMaxY = Float.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < areas.size(); i++) {
+            minX[i] = minY[i] = Float.POSITIVE_INFINITY;
+            maxX[i] = maxY[i] = Float.NEGATIVE_INFINITY;
+            for (Point vertex : areas.get(i).getBoundary()) {
+                minX[i] = Math.min(minX[i], vertex.getX());
+                minY[i] = Math.min(minY[i], vertex.getY());
+                maxX[i] = Math.max(maxX[i], vertex.getX());
+                maxY[i] = Math.max(maxY[i], vertex.getY());
+            }
+            boundsMinX = Math.min(boundsMinX, minX[i]);
+            boundsMinY = Math.min(boundsMinY, minY[i]);
+            boundsMaxX = Math.max(boundsMaxX, maxX[i]);
+            boundsMaxY = Math.max(boundsMaxY, maxY[i]);
+        }
+
+        int size = Math.min(MAX_GRID_SIZE, (int) Math.ceil(Math.sqrt(areas.size())));
+        originX = boundsMinX;
+        originY = boundsMinY;
+        limitX = boundsMaxX;
+        limitY = boundsMaxY;
+        cols = size;
+        rows = size;
+        cellWidth = Math.max((boundsMaxX - boundsMinX) / cols, Float.MIN_NORMAL);
+        cellHeight = Math.max((boundsMaxY - boundsMinY) / rows, Float.MIN_NORMAL);
+
+        List<List<Integer>> buckets = new ArrayList<>(cols * rows);
+        for (int i = 0; i < cols * rows; i++) buckets.add(new ArrayList<>());
+
+        for (int i = 0; i < areas.size(); i++) {
+            int fromCol = clamp((int) ((minX[i] - originX) / cellWidth), cols);
+            int toCol = clamp((int) ((maxX[i] - originX) / cellWidth), cols);
+            int fromRow = clamp((int) ((minY[i] - originY) / cellHeight), rows);
+            int toRow = clamp((int) ((maxY[i] - originY) / cellHeight), rows);
+
+            for (int row = fromRow; row <= toRow; row++) {
+                for (int col = fromCol; col <= toCol; col++) buckets.get(row * cols + col).add(i);
+            }
+        }
+
+        cells = new int[cols * rows][];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = buckets.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+}
@@ -0,0 +1,171 @@
+package br.com.otaviomiklos.mottu.geo;
+
+import java.util.List;
+import java.util.Optional;
+
+import br.com.otaviomiklos.mottu.entity.Point;
+
+/**
+ * 3x3 projective transform from camera pixels to yard coordinates, solved from a camera's
+ * {@code transformPoints} and {@code yardPoints}. Four point pairs give the exact
+ * transform, more are fitted by least squares. Points are normalized before solving to
+ * keep pixel-sized coordinates well conditioned.
+ */
+public class Homography {
+
+    private static final int MIN_POINTS = 4;
+    private static final double EPSILON = 1e-12;
+
+    // Row-major, m[8] scaled to 1
+    private final double[] m;
+
+    private Homography(double[] m) {
+        this.m = m;
+    }
+
+    public static Optional<Homography> solve(List<Point> source, List<Point> target) {
+        if (source == null || target == null) return Optional.empty();
+        if (source.size() != target.size() || source.size() < MIN_POINTS) return Optional.empty();
+
+        double[] sourceNorm = normalization(source);
+        double[] targetNorm = normalization(target);
+        if (sourceNorm == null || targetNorm == null) return Optional.empty();
+
+        // Normal equations (A^T A) h = A^T b of the 8 unknowns, with h33 fixed to 1
+        double[][] ata = new double[8][8];
+        double[] atb = new double[8];
+        double[] row = new double[8];
+
+        for (int i = 0; i < source.size(); i++) {
+            double x = (source.get(i).getX() - sourceNorm[0]) * sourceNorm[2];
+            double y = (source.get(i).getY() - sourceNorm[1]) * sourceNorm[2];
+            double u = (target.get(i).getX() - targetNorm[0]) * targetNorm[2];
+            double v = (target.get(i).getY() - targetNorm[1]) * targetNorm[2];
+
+            row[0] = x; row[1] = y; row[2] = 1; row[3] = 0; row[4] = 0; row[5] = 0; row[6] = -u * x; row[7] = -u * y;
+            accumulate(ata, atb, row, u);
+
+            row[0] = 0; row[1] = 0; row[2] = 0; row[3] = x; row[4] = y; row[5] = 1; row[6] = -v * x; row[7] = -v * y;
+            accumulate(ata, atb, row, v);
+        }
+
+        double[] h = gauss(ata, atb);
+        if (h == null) return Optional.empty();
+
+        double[] normalized = { h[0], h[1], h[2], h[3], h[4], h[5], h[6], h[7], 1 };
+        return denormalize(normalized, sourceNorm, targetNorm).map(Homography::new);
+    }
+
+    /**
+     * Maps {@code count} pixel points to yard coordinates in place. A point sent to infinity
+     * by the transform comes back as NaN.
+     */
+    public void apply(float[] xs, float[] ys, int count) {
+        double m0 = m[0], m1 = m[1], m2 = m[2];
+        double m3 = m[3], m4 = m[4], m5 = m[5];
+        double m6 = m[6], m7 = m[7], m8 = m[8];
+
+        for (int i = 0; i < count; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            double w = m6 * x + m7 * y + m8;
+            if (Math.abs(w) < EPSILON) {
+                xs[i] = Float.NaN;
+                ys[i] = Float.NaN;
+                continue;
+            }
+            xs[i] = (float) ((m0 * x + m1 * y + m2) / w);
+            ys[i] = (float) ((m3 * x + m4 * y + m5) / w);
+        }
+    }
+
+    public double[][] matrix() {
+        return new double[][] {
+            { m[0], m[1], m[2] },
+            { m[3], m[4], m[5] },
+            { m[6], m[7], m[8] }
+        };
+    }
+
+    // Centroid and the scale that brings the mean distance to it down to sqrt(2)
+    private static double[] normalization(List<Point> points) {
+        double cx = 0, cy = 0;
+        for (Point point : points) {
+            cx += point.getX();
+            cy += point.getY();
+        }
+        cx /= points.size();
+        cy /= points.size();
+
+        double distance = 0;
+        for (Point point : points) distance += Math.hypot(point.getX() - cx, point.getY() - cy);
+        distance /= points.size();
+        if (distance < EPSILON) return null;
+
+        return new double[] { cx, cy, Math.sqrt(2) / distance };
+    }
+
+    private static void accumulate(double[][] ata, double[] atb, double[] row, double value) {
+        for (int i = 0; i < 8; i++) {
+            if (row[i] == 0) continue;
+            for (int j = 0; j < 8; j++) ata[i][j] += row[i] * row[j];
+            atb[i] += row[i] * value;
+        }
+    }
+
+    // Gaussian elimination with partial pivoting, null when the points are degenerate
+    private static double[] gauss(double[][] a, double[] b) {
+        int n = b.length;
+        for (int col = 0; col < n; col++) {
+            int pivot = col;
+            for (int r = col + 1; r < n; r++) {
+                if (Math.abs(a[r][col]) > Math.abs(a[pivot][col])) pivot = r;
+            }
+            if (Math.abs(a[pivot][col]) < EPSILON) return null;
+
+            double[] swapRow = a[col]; a[col] = a[pivot]; a[pivot] = swapRow;
+            double swap = b[col]; b[col] = b[pivot]; b[pivot] = swap;
+
+            for (int r = col + 1; r < n; r++) {
+                double factor = a[r][col] / a[col][col];
+                if (factor == 0) continue;
+                for (int c = col; c < n; c++) a[r][c] -= factor * a[col][c];
+                b[r] -= factor * b[col];
+            }
+        }
+
+        double[] x = new double[n];
+        for (int r = n - 1; r >= 0; r--) {
+            double sum = b[r];
+            for (int c = r + 1; c < n; c++) sum -= a[r][c] * x[c];
+            x[r] = sum / a[r][r];
+        }
+        return x;
+    }
+
+    // H = Tt^-1 * Hn * Ts, rescaled so the last entry is 1
+    private static Optional<double[]> denormalize(double[] hn, double[] sourceNorm, double[] targetNorm) {
+        double s = sourceNorm[2], sx = sourceNorm[0], sy = sourceNorm[1];
+        double[] ts = { s, 0, -s * sx, 0, s, -s * sy, 0, 0, 1 };
+
+        double t = targetNorm[2], tx = targetNorm[0], ty = targetNorm[1];
+        double[] ttInverse = { 1 / t, 0, tx, 0, 1 / t, ty, 0, 0, 1 };
+
+        double[] h = multiply(ttInverse, multiply(hn, ts));
+        if (Math.abs(h[8]) < EPSILON) return Optional.empty();
+
+        double scale = h[8];
+        for (int i = 0; i < 9; i++) h[i] /= scale;
+        return Optional.of(h);
+    }
+
+    private static double[] multiply(double[] a, double[] b) {
+        double[] result = new double[9];
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 3; c++) {
+                result[r * 3 + c] = a[r * 3] * b[c] + a[r * 3 + 1] * b[3 + c] + a[r * 3 + 2] * b[6 + c];
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.otaviomiklos.mottu.geo;
+
+import java.util.List;
+import java.util.Optional;
+
+import br.com.otaviomiklos.mottu.entity.Point;
+
+/**
+ * Square-cell counter grid over the bounding box of a yard boundary. Every sighting adds
+ * one to the cell under it; counts live in a single row-major {@code long[]}. Coarser zoom
+ * levels are folded from the finest grid on demand, each level doubling the cell side.
+ */
+public class OccupancyGrid {
+
+    private final float originX;
+    private final float originY;
+    private final float cellSize;
+    private final int cols;
+    private final int rows;
+    private final long[] counts;
+
+    private OccupancyGrid(float originX, float originY, float cellSize, int cols, int rows, long[] counts) {
+        this.originX = originX;
+        this.originY = originY;
+        this.cellSize = cellSize;
+        this.cols = cols;
+        this.rows = rows;
+        this.counts = counts;
+    }
+
+    /**
+     * Grid covering the boundary, widening the requested cell until the grid fits in
+     * {@code maxCells}. Empty when the boundary has no area.
+     */
+    public static Optional<OccupancyGrid> over(List<Point> boundary, float cellSize, int maxCells) {
+        if (boundary == null || boundary.size() < 3 || cellSize <= 0) return Optional.empty();
+
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+        for (Point vertex : boundary) {
+            minX = Math.min(minX, vertex.getX());
+            minY = Math.min(minY, vertex.getY());
+            maxX = Math.max(maxX, vertex.getX());
+            maxY = Math.max(maxY, vertex.getY());
+        }
+        if (maxX <= minX || maxY <= minY) return Optional.empty();
+
+        float size = cellSize;
+        while ((long) cells(maxX - minX, size) * cells(maxY - minY, size) > maxCells) size *= 2;
+
+        int cols = cells(maxX - minX, size);
+        int rows = cells(maxY - minY, size);
+        return Optional.of(new OccupancyGrid(minX, minY, size, cols, rows, new long[cols * rows]));
+    }
+
+    public static OccupancyGrid restore(float originX, float originY, float cellSize, int cols, int rows, long[] counts) {
+        return new OccupancyGrid(originX, originY, cellSize, cols, rows, counts.clone());
+    }
+
+    /**
+     * Counts a sighting, ignoring points outside the grid.
+     */
+    public synchronized boolean add(float x, float y) {
+        if (!(x >= originX && y >= originY)) return false;
+        if (x > originX + cols * cellSize || y > originY + rows * cellSize) return false;
+
+        // Points on the far edge belong to the last cell
+        int col = Math.min(cols - 1, (int) ((x - originX) / cellSize));
+        int row = Math.min(rows - 1, (int) ((y - originY) / cellSize));
+
+        counts[row * cols + col]++;
+        return true;
+    }
+
+    public synchronized long[] copy() {
+        return counts.clone();
+    }
+
+    public boolean sameLayout(float originX, float originY, float cellSize, int cols, int rows) {
+        return this.originX == originX && this.originY == originY && this.cellSize == cellSize
+            && this.cols == cols && this.rows == rows;
+    }
+
+    /**
+     * Counts of the grid folded {@code level} times, each level merging 2x2 cells.
+     */
+    public long[] zoom(long[] counts, int level) {
+        if (level <= 0) return counts;
+
+        int factor = 1 << level;
+        int zoomCols = zoomed(cols, level);
+        long[] zoomedCounts = new long[zoomCols * zoomed(rows, level)];
+        for (int row = 0; row < rows; row++) {
+            int base = (row / factor) * zoomCols;
+            for (int col = 0; col < cols; col++) zoomedCounts[base + col / factor] += counts[row * cols + col];
+        }
+        return zoomedCounts;
+    }
+
+    public int zoomed(int size, int level) {
+        int factor = 1 << level;
+        return (size + factor - 1) / factor;
+    }
+
+    public float getOriginX() {
+        return originX;
+    }
+
+    public float getOriginY() {
+        return originY;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    private static int cells(float length, float size) {
+        return Math.max(1, (int) Math.ceil(length / size));
+    }
+}
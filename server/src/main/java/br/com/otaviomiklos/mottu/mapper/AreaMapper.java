@@ -1,6 +1,7 @@
 package br.com.otaviomiklos.mottu.mapper;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -15,15 +16,15 @@ import br.com.otaviomiklos.mottu.entity.area.Area;
 import br.com.otaviomiklos.mottu.entity.area.AreaMongo;
 import br.com.otaviomiklos.mottu.entity.yard.Yard;
 import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
-import br.com.otaviomiklos.mottu.repository.area.AreaMongoRepository;
 import br.com.otaviomiklos.mottu.repository.yard.YardRepository;
+import br.com.otaviomiklos.mottu.service.GeometryCache;
 
 @Component
 public class AreaMapper {
 
     
     @Autowired
-    private AreaMongoRepository mongoRepository;
+    private GeometryCache geometryCache;
     
     @Autowired
     private YardRepository yardRepository;
@@ -31,15 +32,17 @@ public class AreaMapper {
     @Autowired
     private PointMapper pointMapper;
 
-    private static final String NOT_FOUND_MESSAGE = "Não foi possível encontrar uma área com esse ID";
     private final String YARD_NOT_FOUND_MESSAGE = "Não foi possível encontrar um pátio com esse ID";
 
+    // An area the relay has not written to Mongo yet is returned without a boundary
     public AreaResponse toResponse(Area area) {
-        Optional<AreaMongo> areaMongo = mongoRepository.findByMysqlId(area.getId());
-        if (areaMongo.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
+        Optional<AreaMongo> areaMongo = geometryCache.area(area.getId());
+        return toResponse(area, areaMongo.orElseGet(AreaMongo::new));
+    }
 
+    public AreaResponse toResponse(Area area, AreaMongo areaMongo) {
         List<PointResponse> boundary = null;
-        if (areaMongo.get().getBoundary() != null) boundary = pointMapper.toResponse(areaMongo.get().getBoundary());
+        if (areaMongo.getBoundary() != null) boundary = pointMapper.toResponse(areaMongo.getBoundary());
 
         AreaResponse response = new AreaResponse();
         response.setId(area.getId());
@@ -50,7 +53,14 @@ public class AreaMapper {
     }
 
     public List<AreaResponse> toResponse(List<Area> areas) {
-        return areas.stream().map(area -> toResponse(area)).collect(Collectors.toList());
+        Map<Long, AreaMongo> areasMongo = geometryCache.areas(areas.stream().map(Area::getId).toList());
+
+        return areas.stream()
+            .map(area -> {
+                AreaMongo areaMongo = areasMongo.get(area.getId());
+                return toResponse(area, areaMongo != null ? areaMongo : new AreaMongo());
+            })
+            .collect(Collectors.toList());
     }
 
     public Area toEntity(AreaRequest request) {
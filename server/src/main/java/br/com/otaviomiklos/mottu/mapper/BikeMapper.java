@@ -1,19 +1,27 @@
 package br.com.otaviomiklos.mottu.mapper;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import br.com.otaviomiklos.mottu.dto.bike.BikeListItem;
+import br.com.otaviomiklos.mottu.dto.bike.BikeListResponse;
 import br.com.otaviomiklos.mottu.dto.bike.BikeRequest;
 import br.com.otaviomiklos.mottu.dto.bike.BikeSummaryDTO;
 import br.com.otaviomiklos.mottu.dto.subsidiary.SubsidiarySummary;
 import br.com.otaviomiklos.mottu.dto.bike.BikeDetailsDTO;
 import br.com.otaviomiklos.mottu.dto.yard.YardResponse;
+import br.com.otaviomiklos.mottu.dto.yard.YardSummary;
 import br.com.otaviomiklos.mottu.entity.Bike;
 import br.com.otaviomiklos.mottu.entity.Subsidiary;
 import br.com.otaviomiklos.mottu.entity.yard.Yard;
+import br.com.otaviomiklos.mottu.repository.yard.YardRepository;
 
 @Component
 public class BikeMapper {
@@ -21,6 +29,9 @@ public class BikeMapper {
     @Autowired
     private YardMapper yardMapper;
 
+    @Autowired
+    private YardRepository yardRepository;
+
     public BikeDetailsDTO toResponse(Bike bike) {
         String tagCode = null;
         if (bike.getTag() != null) tagCode = bike.getTag().getCode();
@@ -55,6 +66,22 @@ public class BikeMapper {
         return bikes.stream().map(bike -> toResponse(bike)).collect(Collectors.toList());
     }
 
+    public BikeListResponse toListResponse(List<BikeListItem> bikes, Long nextCursor) {
+        Set<Long> yardIds = bikes.stream()
+            .map(BikeListItem::getYardId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+
+        Map<Long, YardSummary> yards = new HashMap<>();
+        if (!yardIds.isEmpty()) yardRepository.findByIdIn(yardIds).forEach(yard -> yards.put(yard.getId(), yardMapper.toSummary(yard)));
+
+        BikeListResponse response = new BikeListResponse();
+        response.setBikes(bikes);
+        response.setYards(yards);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+
     public BikeSummaryDTO toSummary(Bike bike) {
         BikeSummaryDTO response = new BikeSummaryDTO();
         response.setId(bike.getId());
@@ -0,0 +1,24 @@
+package br.com.otaviomiklos.mottu.mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import br.com.otaviomiklos.mottu.dto.cache.CacheStatsResponse;
+
+@Component
+public class CacheStatsMapper {
+
+    public CacheStatsResponse toResponse(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+
+        CacheStatsResponse response = new CacheStatsResponse();
+        response.setSize(cache.estimatedSize());
+        response.setHitCount(stats.hitCount());
+        response.setMissCount(stats.missCount());
+        response.setHitRate(stats.hitRate());
+        response.setEvictionCount(stats.evictionCount());
+        return response;
+    }
+}
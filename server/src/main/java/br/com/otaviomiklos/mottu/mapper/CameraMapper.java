@@ -15,14 +15,15 @@ import br.com.otaviomiklos.mottu.entity.camera.Camera;
 import br.com.otaviomiklos.mottu.entity.camera.CameraMongo;
 import br.com.otaviomiklos.mottu.entity.yard.Yard;
 import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
-import br.com.otaviomiklos.mottu.repository.camera.CameraMongoRepository;
 import br.com.otaviomiklos.mottu.repository.yard.YardRepository;
+import br.com.otaviomiklos.mottu.service.CameraCalibrationService;
+import br.com.otaviomiklos.mottu.service.GeometryCache;
 
 @Component
 public class CameraMapper {
 
     @Autowired
-    private CameraMongoRepository mongoRepository;
+    private GeometryCache geometryCache;
 
     @Autowired
     private YardRepository yardRepository;
@@ -30,27 +31,32 @@ public class CameraMapper {
     @Autowired
     private PointMapper pointMapper;
 
-    private static final String NOT_FOUND_MESSAGE = "Não foi possível encontrar uma área com esse ID";
+    @Autowired
+    private CameraCalibrationService calibration;
+
     private final String YARD_NOT_FOUND_MESSAGE = "Não foi possível encontrar um pátio com esse ID";
 
+    // A camera the relay has not written to Mongo yet is returned without points
     public CameraResponse toResponse(Camera camera) {
-        Optional<CameraMongo> cameraMongo = mongoRepository.findByMysqlId(camera.getId());
-        if (cameraMongo.isEmpty())
-            throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
+        Optional<CameraMongo> cameraMongo = geometryCache.camera(camera.getId());
+        return toResponse(camera, cameraMongo.orElseGet(CameraMongo::new));
+    }
 
+    public CameraResponse toResponse(Camera camera, CameraMongo cameraMongo) {
         List<PointResponse> transformPoints = null;
-        if (cameraMongo.get().getTransformPoints() != null)
-            transformPoints = pointMapper.toResponse(cameraMongo.get().getTransformPoints());
+        if (cameraMongo.getTransformPoints() != null)
+            transformPoints = pointMapper.toResponse(cameraMongo.getTransformPoints());
 
         List<PointResponse> yardPoints = null;
-        if (cameraMongo.get().getYardPoints() != null)
-            yardPoints = pointMapper.toResponse(cameraMongo.get().getYardPoints());
+        if (cameraMongo.getYardPoints() != null)
+            yardPoints = pointMapper.toResponse(cameraMongo.getYardPoints());
 
         CameraResponse response = new CameraResponse();
         response.setId(camera.getId());
         response.setUrlAccess(camera.getUriAccess());
         response.setTransformPoints(transformPoints);
         response.setYardPoints(yardPoints);
+        calibration.forCamera(camera.getId()).ifPresent(homography -> response.setHomography(homography.matrix()));
         return response;
     }
 
@@ -1,15 +1,19 @@
 package br.com.otaviomiklos.mottu.mapper;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import br.com.otaviomiklos.mottu.dto.address.AddressRequest;
 import br.com.otaviomiklos.mottu.dto.apriltag.ApriltagResponse;
+import br.com.otaviomiklos.mottu.dto.page.CursorPage;
 import br.com.otaviomiklos.mottu.dto.subsidiary.SubsidiaryRequest;
 import br.com.otaviomiklos.mottu.dto.subsidiary.SubsidiaryResponse;
 import br.com.otaviomiklos.mottu.dto.subsidiary.SubsidiarySummary;
@@ -17,17 +21,21 @@ import br.com.otaviomiklos.mottu.dto.subsidiary.SubsidiaryTags;
 import br.com.otaviomiklos.mottu.dto.yard.YardMongoResponse;
 import br.com.otaviomiklos.mottu.dto.yard.YardResponse;
 import br.com.otaviomiklos.mottu.entity.Address;
+import br.com.otaviomiklos.mottu.entity.Apriltag;
 import br.com.otaviomiklos.mottu.entity.Subsidiary;
 import br.com.otaviomiklos.mottu.entity.yard.Yard;
-import br.com.otaviomiklos.mottu.entity.yard.YardMongo;
-import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
-import br.com.otaviomiklos.mottu.repository.yard.YardMongoRepository;
+import br.com.otaviomiklos.mottu.repository.ApriltagRepository;
+import br.com.otaviomiklos.mottu.service.KeysetPagination;
+import br.com.otaviomiklos.mottu.service.LiveYardStateService;
 
 @Component
 public class SubsidiaryMapper {
     
     @Autowired
-    private YardMongoRepository yardMongoRepository;
+    private LiveYardStateService liveState;
+
+    @Autowired
+    private ApriltagRepository apriltagRepository;
 
     @Autowired
     private ApriltagMapper apriltagMapper;
@@ -38,26 +46,66 @@ public class SubsidiaryMapper {
     @Autowired
     private YardMongoMapper yardMongoMapper;
 
-    private final String YARD_NOT_FOUND_MESSAGE = "Não foi possível encontrar um pátio com esse ID";
+    @Autowired
+    private KeysetPagination pagination;
+
+    @Value("${mottu.pagination.embedded-tags}")
+    private int embeddedTags;
 
     public SubsidiaryResponse toResponse(Subsidiary subsidiary) {
-        List<ApriltagResponse> tags = new ArrayList<>();
-        if (subsidiary.getApriltags() != null) tags = apriltagMapper.toResponse(subsidiary.getApriltags());
-
         List<YardResponse> yards = new ArrayList<>();
         if (subsidiary.getYards() != null) yards = yardMapper.toResponse(subsidiary.getYards());
 
+        return toResponse(subsidiary, yards, firstTagsPages(List.of(subsidiary)).get(subsidiary.getId()));
+    }
+
+    // One ranked query for every subsidiary, asking for one tag more than the embedded page
+    private Map<Long, CursorPage<ApriltagResponse>> firstTagsPages(List<Subsidiary> subsidiaries) {
+        Map<Long, List<Apriltag>> apriltags = new HashMap<>();
+        subsidiaries.forEach(subsidiary -> apriltags.put(subsidiary.getId(), new ArrayList<>()));
+
+        if (!subsidiaries.isEmpty()) {
+            List<Long> ids = apriltagRepository.findFirstIdsPerSubsidiary(apriltags.keySet(), embeddedTags + 1);
+            if (!ids.isEmpty()) {
+                apriltagRepository.findByIdInOrderByIdAsc(ids)
+                    .forEach(apriltag -> apriltags.get(apriltag.getSubsidiary().getId()).add(apriltag));
+            }
+        }
+
+        Map<Long, CursorPage<ApriltagResponse>> pages = new HashMap<>();
+        apriltags.forEach((id, rows) -> pages.put(id, pagination.page(rows, embeddedTags, Apriltag::getId, apriltagMapper::toResponse)));
+        return pages;
+    }
+
+    private SubsidiaryResponse toResponse(Subsidiary subsidiary, List<YardResponse> yards, CursorPage<ApriltagResponse> tags) {
         SubsidiaryResponse response = new SubsidiaryResponse();
         response.setId(subsidiary.getId());
         response.setName(subsidiary.getName());
         response.setAddress(subsidiary.getAddress().toString());
-        response.setTags(tags);
+        response.setTags(tags.getItems());
+        response.setNextTagsCursor(tags.getNextCursor());
         response.setYards(yards);
         return response;
     }
 
     public List<SubsidiaryResponse> toResponse(List<Subsidiary> subsidiaries) {
-        return subsidiaries.stream().map(subsidiary -> toResponse(subsidiary)).collect(Collectors.toList());
+        List<Yard> allYards = subsidiaries.stream()
+            .filter(subsidiary -> subsidiary.getYards() != null)
+            .flatMap(subsidiary -> subsidiary.getYards().stream())
+            .toList();
+        Map<Long, YardResponse> yards = yardMapper.toResponse(allYards).stream()
+            .collect(Collectors.toMap(YardResponse::getId, Function.identity()));
+
+        Map<Long, CursorPage<ApriltagResponse>> tags = firstTagsPages(subsidiaries);
+
+        return subsidiaries.stream()
+            .map(subsidiary -> {
+                List<YardResponse> subsidiaryYards = new ArrayList<>();
+                if (subsidiary.getYards() != null) subsidiaryYards = subsidiary.getYards().stream().map(yard -> yards.get(yard.getId())).collect(Collectors.toList());
+
+                return toResponse(subsidiary, subsidiaryYards, tags.get(subsidiary.getId()));
+            })
+            .collect(Collectors.toList());
     }
 
     public SubsidiarySummary toSummary(Subsidiary subsidiary) {
@@ -72,16 +120,9 @@ public class SubsidiaryMapper {
         List<YardMongoResponse> yardsResponse = null;
         List<Yard> yards = subsidiary.getYards();
         if (yards.size() != 0) {
-            List<YardMongo> yardsMongo = yards.stream()
-                .map(yard -> {
-                    Optional<YardMongo> yardMongo = yardMongoRepository.findByMysqlId(yard.getId());
-                    if (yardMongo.isEmpty()) throw new ResourceNotFoundException(YARD_NOT_FOUND_MESSAGE);
-                    return yardMongo.get();
-                })
+            yardsResponse = yards.stream()
+                .map(yard -> yardMongoMapper.toMongoResponse(yard.getId(), liveState.read(yard.getId())))
                 .collect(Collectors.toList());
-
-
-            yardsResponse = yardsMongo.stream().map(yardMongo -> yardMongoMapper.toMongoResponse(yardMongo)).collect(Collectors.toList());
         } 
 
         SubsidiaryTags response = new SubsidiaryTags();
@@ -1,8 +1,12 @@
 package br.com.otaviomiklos.mottu.mapper;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,15 +16,13 @@ import br.com.otaviomiklos.mottu.dto.bike.BikeSummaryDTO;
 import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionRequest;
 import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionResponse;
 import br.com.otaviomiklos.mottu.entity.Apriltag;
-import br.com.otaviomiklos.mottu.entity.Bike;
 import br.com.otaviomiklos.mottu.entity.Point;
-import br.com.otaviomiklos.mottu.entity.area.Area;
 import br.com.otaviomiklos.mottu.entity.area.AreaMongo;
 import br.com.otaviomiklos.mottu.entity.yard.Yard;
 import br.com.otaviomiklos.mottu.enums.AreaStatus;
+import br.com.otaviomiklos.mottu.geo.AreaIndex;
 import br.com.otaviomiklos.mottu.repository.ApriltagRepository;
-import br.com.otaviomiklos.mottu.repository.BikeRepository;
-import br.com.otaviomiklos.mottu.repository.area.AreaMongoRepository;
+import br.com.otaviomiklos.mottu.service.AreaIndexService;
 
 @Component
 public class TagPositionMapper {
@@ -29,10 +31,7 @@ public class TagPositionMapper {
     private ApriltagRepository apriltagRepository;
 
     @Autowired
-    private AreaMongoRepository areaMongoRepository;
-
-    @Autowired
-    private BikeRepository bikeRepository;
+    private AreaIndexService areaIndexService;
 
     @Autowired
     private ApriltagMapper apriltagMapper;
@@ -40,38 +39,39 @@ public class TagPositionMapper {
     @Autowired
     private BikeMapper bikeMapper;
 
-    public TagPositionResponse toResponse(TagPositionRequest request, Yard yard) {
-        Optional<Apriltag> apriltagOptional = apriltagRepository.findByCodeAndSubsidiaryId(request.getTagCode(), yard.getSubsidiary().getId());
-        if (apriltagOptional.isEmpty()) return null;
-        
-        Apriltag apriltag = apriltagOptional.get();
-        
-        BikeSummaryDTO bike = null; 
-        if (apriltag.getBike() != null) {
-            
-            Bike bikeToSave = apriltag.getBike();
-            bikeToSave.setYard(yard);
+    public List<TagPositionResponse> toResponse(List<TagPositionRequest> requests, Yard yard) {
+        if (requests == null || requests.isEmpty()) return new ArrayList<>();
 
-            bikeRepository.save(bikeToSave);
+        Map<String, Apriltag> apriltags = resolveTags(requests, yard);
+        AreaIndex areas = areaIndexService.forYard(yard.getId());
 
-            bike = bikeMapper.toSummary(apriltag.getBike());
-        }
-
-        Point position = new Point(request.getPosition().getX(), request.getPosition().getY());        
-        List<Area> areasMysql = yard.getAreas();
-        List<AreaMongo> areas = areasMysql.stream()
-            .map(area ->{
-                Optional<AreaMongo> areaMongo = areaMongoRepository.findByMysqlId(area.getId());
-                if (areaMongo.isEmpty()) return null;
-                return areaMongo.get();
-            })
+        return requests.stream()
+            .map(request -> toResponse(request, apriltags.get(request.getTagCode()), areas))
+            .filter(Objects::nonNull)
             .collect(Collectors.toList());
+    }
 
-        Optional<AreaMongo> area = areas.stream().filter(areaToFilter -> areaToFilter.checkInside(position)).findFirst();
+    private Map<String, Apriltag> resolveTags(List<TagPositionRequest> requests, Yard yard) {
+        Set<String> codes = requests.stream().map(TagPositionRequest::getTagCode).collect(Collectors.toSet());
+        return apriltagRepository.findByCodeInAndSubsidiaryId(codes, yard.getSubsidiary().getId()).stream()
+            .collect(Collectors.toMap(Apriltag::getCode, Function.identity(), (first, second) -> first));
+    }
+
+    private TagPositionResponse toResponse(TagPositionRequest request, Apriltag apriltag, AreaIndex areas) {
+        if (apriltag == null) return null;
+        
+        BikeSummaryDTO bike = null; 
+        if (apriltag.getBike() != null) bike = bikeMapper.toSummary(apriltag.getBike());
+
+        Point position = new Point(request.getPosition().getX(), request.getPosition().getY());        
+        Optional<AreaMongo> area = areas.find(position);
         
+        Long areaId = null;
         AreaStatus areaStatus = null;
-        if (area.isEmpty()) areaStatus = null;
-        else areaStatus = area.get().getStatus();
+        if (area.isPresent()) {
+            areaId = area.get().getMysqlId();
+            areaStatus = area.get().getStatus();
+        }
 
         boolean isInRightArea = false;
         if (areaStatus == null) isInRightArea = true;
@@ -81,16 +81,10 @@ public class TagPositionMapper {
         response.setTag(apriltagMapper.toResponse(apriltag));
         response.setBike(bike);
         response.setPosition(position);
+        response.setAreaId(areaId);
         response.setAreaStatus(areaStatus);
         response.setInRightArea(isInRightArea);
         return response;
     }
 
-    public List<TagPositionResponse> toResponse(List<TagPositionRequest> requests, Yard yard) {
-        return requests.stream()
-            .map(request -> toResponse(request, yard))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
-    }
-
 }
@@ -1,8 +1,11 @@
 package br.com.otaviomiklos.mottu.mapper;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,22 +15,27 @@ import br.com.otaviomiklos.mottu.dto.area.AreaResponse;
 import br.com.otaviomiklos.mottu.dto.camera.CameraResponse;
 import br.com.otaviomiklos.mottu.dto.point.PointRequest;
 import br.com.otaviomiklos.mottu.dto.point.PointResponse;
+import br.com.otaviomiklos.mottu.dto.subsidiary.SubsidiarySummary;
 import br.com.otaviomiklos.mottu.dto.yard.YardCameraResponse;
 import br.com.otaviomiklos.mottu.dto.yard.YardRequest;
 import br.com.otaviomiklos.mottu.dto.yard.YardResponse;
+import br.com.otaviomiklos.mottu.dto.yard.YardSummary;
 import br.com.otaviomiklos.mottu.entity.Point;
 import br.com.otaviomiklos.mottu.entity.Subsidiary;
+import br.com.otaviomiklos.mottu.entity.area.AreaMongo;
+import br.com.otaviomiklos.mottu.entity.camera.CameraMongo;
 import br.com.otaviomiklos.mottu.entity.yard.Yard;
+import br.com.otaviomiklos.mottu.entity.yard.YardGeometry;
 import br.com.otaviomiklos.mottu.entity.yard.YardMongo;
 import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
 import br.com.otaviomiklos.mottu.repository.SubsidiaryRepository;
-import br.com.otaviomiklos.mottu.repository.yard.YardMongoRepository;
+import br.com.otaviomiklos.mottu.service.GeometryCache;
 
 @Component
 public class YardMapper {
 
     @Autowired
-    private YardMongoRepository mongoRepository;
+    private GeometryCache geometryCache;
     
     @Autowired
     private SubsidiaryRepository subsidiaryRepository;
@@ -41,18 +49,23 @@ public class YardMapper {
     @Autowired
     private PointMapper pointMapper;
 
-    private static final String NOT_FOUND_MESSAGE = "Não foi possível encontrar um pátio com esse ID";
     private final String SUBSIDIARY_NOT_FOUND_MESSAGE = "Não foi possível encontrar uma filial com esse ID";
     
     public YardResponse toResponse(Yard yard) {
+        YardGeometry geometry = geometryCache.yardGeometry(yard.getId()).orElseGet(YardMapper::unstored);
+        return toResponse(yard, geometry.getBoundary(), toAreaResponse(yard, geometry));
+    }
+
+    public YardResponse toResponse(Yard yard, YardMongo yardMongo) {
         List<AreaResponse> areas = new ArrayList<>();
         if (yard.getAreas() != null) areas = areaMapper.toResponse(yard.getAreas());
 
-        Optional<YardMongo> yardMongo = mongoRepository.findByMysqlId(yard.getId());
-        if (yardMongo.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
+        List<Point> boundary = yardMongo.getBoundary() != null ? yardMongo.getBoundary() : new ArrayList<>();
+        return toResponse(yard, boundary, areas);
+    }
 
-        List<PointResponse> boundary = null;
-        if (yardMongo.get().getBoundary() != null) boundary = pointMapper.toResponse(yardMongo.get().getBoundary());
+    private YardResponse toResponse(Yard yard, List<Point> yardBoundary, List<AreaResponse> areas) {
+        List<PointResponse> boundary = pointMapper.toResponse(yardBoundary);
 
         YardResponse response = new YardResponse();
         response.setId(yard.getId());
@@ -65,7 +78,65 @@ public class YardMapper {
     }
 
     public List<YardResponse> toResponse(List<Yard> yards) {
-        return yards.stream().map(yard -> toResponse(yard)).collect(Collectors.toList());
+        Map<Long, YardGeometry> geometries = geometryCache.yardGeometries(yards.stream().map(Yard::getId).toList());
+
+        return yards.stream()
+            .map(yard -> {
+                YardGeometry geometry = geometries.getOrDefault(yard.getId(), unstored());
+
+                return toResponse(yard, geometry.getBoundary(), toAreaResponse(yard, geometry));
+            })
+            .collect(Collectors.toList());
+    }
+
+    // Areas come from the aggregate; one the relay has not embedded yet falls back to its own document
+    private List<AreaResponse> toAreaResponse(Yard yard, YardGeometry geometry) {
+        if (yard.getAreas() == null) return new ArrayList<>();
+
+        Map<Long, AreaMongo> embedded = byMysqlId(geometry.getAreas(), AreaMongo::getMysqlId);
+        return yard.getAreas().stream()
+            .map(area -> embedded.containsKey(area.getId())
+                ? areaMapper.toResponse(area, embedded.get(area.getId()))
+                : areaMapper.toResponse(area))
+            .collect(Collectors.toList());
+    }
+
+    private List<CameraResponse> toCameraResponse(Yard yard, YardGeometry geometry) {
+        if (yard.getCameras() == null) return new ArrayList<>();
+
+        Map<Long, CameraMongo> embedded = byMysqlId(geometry.getCameras(), CameraMongo::getMysqlId);
+        return yard.getCameras().stream()
+            .map(camera -> embedded.containsKey(camera.getId())
+                ? cameraMapper.toResponse(camera, embedded.get(camera.getId()))
+                : cameraMapper.toResponse(camera))
+            .collect(Collectors.toList());
+    }
+
+    // A yard the relay has not written to Mongo yet has no boundary and embeds nothing
+    private static YardGeometry unstored() {
+        YardGeometry geometry = new YardGeometry();
+        geometry.setBoundary(new ArrayList<>());
+        return geometry;
+    }
+
+    private static <T> Map<Long, T> byMysqlId(List<T> documents, Function<T, Long> idOf) {
+        if (documents == null) return Map.of();
+        return documents.stream().collect(Collectors.toMap(idOf, Function.identity(), (first, second) -> first));
+    }
+
+    public YardSummary toSummary(Yard yard) {
+        Subsidiary subsidiary = yard.getSubsidiary();
+
+        SubsidiarySummary subsidiaryResponse = new SubsidiarySummary();
+        subsidiaryResponse.setId(subsidiary.getId());
+        subsidiaryResponse.setName(subsidiary.getName());
+        subsidiaryResponse.setAddress(subsidiary.getAddress().toString());
+
+        YardSummary response = new YardSummary();
+        response.setId(yard.getId());
+        response.setName(yard.getName());
+        response.setSubsidiary(subsidiaryResponse);
+        return response;
     }
 
     public Yard toEntity(YardRequest request) {
@@ -80,14 +151,10 @@ public class YardMapper {
     }
 
     public YardCameraResponse toCameraResponse(Yard yard) {
-        List<CameraResponse> cameras = new ArrayList<>();
-        if (yard.getCameras() != null) cameras = cameraMapper.toResponse(yard.getCameras());
-
-        Optional<YardMongo> yardMongo = mongoRepository.findByMysqlId(yard.getId());
-        if (yardMongo.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
+        YardGeometry geometry = geometryCache.yardGeometry(yard.getId()).orElseGet(YardMapper::unstored);
 
-        List<PointResponse> boundary = null;
-        if (yardMongo.get().getBoundary() != null) boundary = pointMapper.toResponse(yardMongo.get().getBoundary());
+        List<CameraResponse> cameras = toCameraResponse(yard, geometry);
+        List<PointResponse> boundary = pointMapper.toResponse(geometry.getBoundary());
 
         YardCameraResponse response = new YardCameraResponse();
         response.setId(yard.getId());
@@ -109,7 +176,7 @@ public class YardMapper {
         YardMongo yard = new YardMongo();
         yard.setMysqlId(mysqlId);
         yard.setBoundary(boundary);
-        yard.setTags(new ArrayList<>());
+        yard.setPositions(new LinkedHashMap<>());
         return yard;
     }
 }
@@ -1,13 +1,14 @@
 package br.com.otaviomiklos.mottu.mapper;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionRequest;
 import br.com.otaviomiklos.mottu.dto.yard.YardMongoResponse;
 import br.com.otaviomiklos.mottu.entity.yard.Yard;
-import br.com.otaviomiklos.mottu.entity.yard.YardMongo;
 import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
 import br.com.otaviomiklos.mottu.repository.SubsidiaryRepository;
 import br.com.otaviomiklos.mottu.repository.yard.YardRepository;
@@ -29,13 +30,16 @@ public class YardMongoMapper {
     
     private final String NOT_FOUND_MESSAGE = "Não foi possível encontrar um pátio com esse ID";
 
-    public YardMongoResponse toMongoResponse(YardMongo yardMongo) {
-        Optional<Yard> yard = repository.findById(yardMongo.getMysqlId());
+    public YardMongoResponse toMongoResponse(Long mysqlId, List<TagPositionRequest> tags) {
+        Optional<Yard> yard = repository.findById(mysqlId);
         if (yard.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
+        return toMongoResponse(yard.get(), tags);
+    }
 
+    public YardMongoResponse toMongoResponse(Yard yard, List<TagPositionRequest> tags) {
         YardMongoResponse response = new YardMongoResponse();
-        response.setYard(yardMapper.toResponse(yard.get()));
-        response.setTags(tagPositionMapper.toResponse(yardMongo.getTags(), yard.get()));
+        response.setYard(yardMapper.toResponse(yard));
+        response.setTags(tagPositionMapper.toResponse(tags, yard));
         return response;
     }
 
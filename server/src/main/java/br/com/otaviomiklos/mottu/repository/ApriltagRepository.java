@@ -1,13 +1,44 @@
 package br.com.otaviomiklos.mottu.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import br.com.otaviomiklos.mottu.entity.Apriltag;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface ApriltagRepository extends JpaRepository<Apriltag, Long> {
     Optional<Apriltag> findByCodeAndSubsidiaryId(String code, Long yardId);
+
+    @EntityGraph(attributePaths = {"subsidiary", "bike", "bike.yard"})
+    List<Apriltag> findByCodeInAndSubsidiaryId(Collection<String> codes, Long subsidiaryId);
+
+    @EntityGraph(attributePaths = {"subsidiary", "bike"})
+    List<Apriltag> findByIdGreaterThanOrderByIdAsc(Long after, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"subsidiary", "bike"})
+    List<Apriltag> findBySubsidiaryIdAndIdGreaterThanOrderByIdAsc(Long subsidiaryId, Long after, Pageable pageable);
+
+    // First tags of each subsidiary in id order, ranked in one query for the embedded tag pages
+    @Query(value = "select ranked.id from ("
+        + "select t.id, row_number() over (partition by t.subsidiary_id order by t.id) as row_num "
+        + "from tb_mottu_apriltags t where t.subsidiary_id in (?1)"
+        + ") ranked where ranked.row_num <= ?2", nativeQuery = true)
+    List<Long> findFirstIdsPerSubsidiary(Collection<Long> subsidiaryIds, int limit);
+
+    @EntityGraph(attributePaths = {"subsidiary", "bike"})
+    List<Apriltag> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("select t from Apriltag t join fetch t.subsidiary left join fetch t.bike order by t.id")
+    Stream<Apriltag> streamAll();
 }
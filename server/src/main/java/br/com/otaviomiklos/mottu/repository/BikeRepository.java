@@ -1,18 +1,41 @@
 package br.com.otaviomiklos.mottu.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import br.com.otaviomiklos.mottu.dto.bike.BikeListItem;
 import br.com.otaviomiklos.mottu.entity.Bike;
 import br.com.otaviomiklos.mottu.enums.AreaStatus;
 import br.com.otaviomiklos.mottu.enums.BikeModel;
+import jakarta.persistence.QueryHint;
 
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 @Repository
 public interface BikeRepository extends JpaRepository<Bike, Long> {
     Optional<Bike> findByPlate(String plate);
     List<Bike> findByStatusAndModel(AreaStatus status, BikeModel model);
+
+    @Query("""
+        select new br.com.otaviomiklos.mottu.dto.bike.BikeListItem(b.id, b.plate, b.chassis, b.model, b.status, t.code, y.id)
+        from Bike b left join b.tag t left join b.yard y
+        where b.id > :after
+        order by b.id
+        """)
+    List<BikeListItem> findListItemsAfter(@Param("after") Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("""
+        select new br.com.otaviomiklos.mottu.dto.bike.BikeListItem(b.id, b.plate, b.chassis, b.model, b.status, t.code, y.id)
+        from Bike b left join b.tag t left join b.yard y
+        order by b.id
+        """)
+    Stream<BikeListItem> streamListItems();
 }
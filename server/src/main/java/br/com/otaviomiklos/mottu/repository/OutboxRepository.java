@@ -0,0 +1,31 @@
+package br.com.otaviomiklos.mottu.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import br.com.otaviomiklos.mottu.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // FOR UPDATE SKIP LOCKED, so concurrent relays never pick the same events
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.failed = false and e.availableAt <= :now order by e.id")
+    List<OutboxEvent> findReady(@Param("now") long now, Pageable pageable);
+
+    // Pending events of the same documents older than a batch that the batch did not get,
+    // either postponed or locked by another relay. Read without locking
+    @Query("select e from OutboxEvent e where e.failed = false and e.aggregateId in :aggregateIds and e.id < :before and e.id not in :ids")
+    List<OutboxEvent> findPendingBefore(@Param("aggregateIds") Collection<Long> aggregateIds, @Param("before") long before, @Param("ids") Collection<Long> ids);
+}
@@ -1,10 +1,35 @@
 package br.com.otaviomiklos.mottu.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import br.com.otaviomiklos.mottu.entity.Subsidiary;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface SubsidiaryRepository extends JpaRepository<Subsidiary, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = {"address", "yards"})
+    List<Subsidiary> findAll();
+
+    // Keyset pages seek on the id alone and then load the rows with their yards, since
+    // a collection fetch under a limit would be paginated in memory by Hibernate
+    @Query("select s.id from Subsidiary s where s.id > ?1 order by s.id")
+    List<Long> findIdsAfter(Long after, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"address", "yards"})
+    List<Subsidiary> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("select s from Subsidiary s left join fetch s.address order by s.id")
+    Stream<Subsidiary> streamAll();
 }
@@ -1,5 +1,7 @@
 package br.com.otaviomiklos.mottu.repository.area;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -10,4 +12,5 @@ import br.com.otaviomiklos.mottu.entity.area.AreaMongo;
 @Repository
 public interface AreaMongoRepository extends MongoRepository<AreaMongo, String> {
     Optional<AreaMongo> findByMysqlId(Long mysqlId);
+    List<AreaMongo> findByMysqlIdIn(Collection<Long> mysqlIds);
 }
@@ -1,5 +1,7 @@
 package br.com.otaviomiklos.mottu.repository.area;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -7,4 +9,5 @@ import br.com.otaviomiklos.mottu.entity.area.Area;
 
 @Repository
 public interface AreaRepository extends JpaRepository<Area, Long> {
+    List<Area> findByYardId(Long yardId);
 }
@@ -1,5 +1,7 @@
 package br.com.otaviomiklos.mottu.repository.camera;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -10,4 +12,5 @@ import br.com.otaviomiklos.mottu.entity.camera.CameraMongo;
 @Repository
 public interface CameraMongoRepository extends MongoRepository<CameraMongo, String> {
     Optional<CameraMongo> findByMysqlId(Long mysqlId);
+    List<CameraMongo> findByMysqlIdIn(Collection<Long> mysqlIds);
 }
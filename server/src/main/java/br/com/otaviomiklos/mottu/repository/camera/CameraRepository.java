@@ -1,5 +1,7 @@
 package br.com.otaviomiklos.mottu.repository.camera;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -7,4 +9,5 @@ import br.com.otaviomiklos.mottu.entity.camera.Camera;
 
 @Repository
 public interface CameraRepository extends JpaRepository<Camera, Long> {
+    List<Camera> findByYardId(Long yardId);
 }
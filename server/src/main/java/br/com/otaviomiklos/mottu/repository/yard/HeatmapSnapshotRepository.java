@@ -0,0 +1,14 @@
+package br.com.otaviomiklos.mottu.repository.yard;
+
+import java.util.Optional;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import br.com.otaviomiklos.mottu.entity.yard.HeatmapSnapshot;
+
+@Repository
+public interface HeatmapSnapshotRepository extends MongoRepository<HeatmapSnapshot, String> {
+    Optional<HeatmapSnapshot> findByMysqlId(Long mysqlId);
+    void deleteByMysqlId(Long mysqlId);
+}
@@ -0,0 +1,21 @@
+package br.com.otaviomiklos.mottu.repository.yard;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import br.com.otaviomiklos.mottu.entity.yard.YardGeometry;
+
+@Repository
+public interface YardGeometryRepository extends MongoRepository<YardGeometry, String> {
+    Optional<YardGeometry> findByMysqlId(Long mysqlId);
+    List<YardGeometry> findByMysqlIdIn(Collection<Long> mysqlIds);
+    void deleteByMysqlIdIn(Collection<Long> mysqlIds);
+
+    @Query(value = "{ '$or': [ { 'areas.mysqlId': { '$in': ?0 } }, { 'cameras.mysqlId': { '$in': ?1 } } ] }", fields = "{ 'mysqlId': 1 }")
+    List<YardGeometry> findEmbedding(Collection<Long> areaIds, Collection<Long> cameraIds);
+}
@@ -1,5 +1,7 @@
 package br.com.otaviomiklos.mottu.repository.yard;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -10,4 +12,5 @@ import br.com.otaviomiklos.mottu.entity.yard.YardMongo;
 @Repository
 public interface YardMongoRepository extends MongoRepository<YardMongo, String> {
     Optional<YardMongo> findByMysqlId (Long mysqlId);
+    List<YardMongo> findByMysqlIdIn(Collection<Long> mysqlIds);
 }
@@ -1,10 +1,38 @@
 package br.com.otaviomiklos.mottu.repository.yard;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import br.com.otaviomiklos.mottu.entity.yard.Yard;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface YardRepository extends JpaRepository<Yard, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = {"subsidiary", "subsidiary.address", "areas"})
+    List<Yard> findAll();
+
+    @EntityGraph(attributePaths = {"subsidiary", "subsidiary.address"})
+    List<Yard> findByIdIn(Collection<Long> ids);
+
+    // Keyset pages seek on the id alone and then load the rows with their areas, since
+    // a collection fetch under a limit would be paginated in memory by Hibernate
+    @Query("select y.id from Yard y where y.id > ?1 order by y.id")
+    List<Long> findIdsAfter(Long after, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"subsidiary", "subsidiary.address", "areas"})
+    List<Yard> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("select y from Yard y join fetch y.subsidiary s left join fetch s.address order by y.id")
+    Stream<Yard> streamAll();
 }
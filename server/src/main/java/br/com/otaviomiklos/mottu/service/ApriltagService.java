@@ -5,9 +5,11 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import br.com.otaviomiklos.mottu.dto.apriltag.ApriltagRequest;
 import br.com.otaviomiklos.mottu.dto.apriltag.ApriltagResponse;
+import br.com.otaviomiklos.mottu.dto.page.CursorPage;
 import br.com.otaviomiklos.mottu.entity.Apriltag;
 import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
 import br.com.otaviomiklos.mottu.mapper.ApriltagMapper;
@@ -22,6 +24,12 @@ public class ApriltagService {
     @Autowired
     private ApriltagMapper mapper;
 
+    @Autowired
+    private KeysetPagination pagination;
+
+    @Autowired
+    private NdjsonExportService exportService;
+
     private static final String NOT_FOUND_MESSAGE = "Não foi possível encontrar uma apriltag com esse ID";
 
     public ApriltagResponse save(ApriltagRequest request) {
@@ -29,9 +37,14 @@ public class ApriltagService {
         return mapper.toResponse(apriltag);
     }
 
-    public List<ApriltagResponse> findAll() {
-        List<Apriltag> apriltags = repository.findAll();
-        return mapper.toResponse(apriltags);
+    public CursorPage<ApriltagResponse> findAll(Long after, Integer limit) {
+        int size = pagination.size(limit);
+        List<Apriltag> apriltags = repository.findByIdGreaterThanOrderByIdAsc(pagination.after(after), pagination.pageable(size));
+        return pagination.page(apriltags, size, Apriltag::getId, mapper::toResponse);
+    }
+
+    public StreamingResponseBody exportAll() {
+        return exportService.export(repository::streamAll, mapper::toResponse);
     }
 
     public ApriltagResponse findById(Long id) {
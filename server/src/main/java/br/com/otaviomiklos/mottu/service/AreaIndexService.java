@@ -0,0 +1,41 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import br.com.otaviomiklos.mottu.geo.AreaIndex;
+
+/**
+ * Holds one {@link AreaIndex} per yard. Indexes are built on first use from the yard's
+ * geometry aggregate and rebuilt whenever the relay refreshes that aggregate.
+ */
+@Service
+public class AreaIndexService {
+
+    @Autowired
+    private GeometryCache geometryCache;
+
+    private final Map<Long, AreaIndex> indexes = new ConcurrentHashMap<>();
+
+    public AreaIndex forYard(Long yardId) {
+        return indexes.computeIfAbsent(yardId, this::build);
+    }
+
+    public void rebuild(Long yardId) {
+        indexes.put(yardId, build(yardId));
+    }
+
+    public void evict(Long yardId) {
+        indexes.remove(yardId);
+    }
+
+    private AreaIndex build(Long yardId) {
+        return geometryCache.yardGeometry(yardId)
+            .filter(geometry -> geometry.getAreas() != null)
+            .map(geometry -> AreaIndex.of(geometry.getAreas()))
+            .orElse(AreaIndex.empty());
+    }
+}
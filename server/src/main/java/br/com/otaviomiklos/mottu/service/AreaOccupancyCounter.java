@@ -0,0 +1,219 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import br.com.otaviomiklos.mottu.dto.analytics.AreaOccupancyResponse;
+import br.com.otaviomiklos.mottu.dto.analytics.SubsidiaryOccupancyResponse;
+import br.com.otaviomiklos.mottu.dto.analytics.YardOccupancyResponse;
+import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionResponse;
+import br.com.otaviomiklos.mottu.enums.AreaStatus;
+import br.com.otaviomiklos.mottu.enums.BikeModel;
+import br.com.otaviomiklos.mottu.event.YardTagsUpdatedEvent;
+import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
+import br.com.otaviomiklos.mottu.repository.SubsidiaryRepository;
+import br.com.otaviomiklos.mottu.repository.yard.YardRepository;
+
+/**
+ * Materialized count of the bikes in each area, split by bike model and status. Every
+ * ingestion only moves the bikes whose area, model or status changed from one counter to
+ * another, and yard totals are kept alongside, so reads never walk the tag positions.
+ */
+@Component
+public class AreaOccupancyCounter {
+
+    private static final String YARD_NOT_FOUND_MESSAGE = "Não foi possível encontrar um pátio com esse ID";
+    private static final String SUBSIDIARY_NOT_FOUND_MESSAGE = "Não foi possível encontrar uma filial com esse ID";
+
+    // Counters are indexed by model ordinal * statuses + status ordinal
+    private static final BikeModel[] MODELS = BikeModel.values();
+    private static final AreaStatus[] STATUSES = AreaStatus.values();
+    private static final int SLOTS = MODELS.length * STATUSES.length;
+
+    @Autowired
+    private YardRepository yardRepository;
+
+    @Autowired
+    private SubsidiaryRepository subsidiaryRepository;
+
+    private final Map<Long, YardOccupancy> yards = new ConcurrentHashMap<>();
+    // Yard each counted bike is currently in
+    private final Map<Long, Long> bikeYards = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onTagsUpdated(YardTagsUpdatedEvent event) {
+        Long yardId = event.getYardId();
+        YardOccupancy occupancy = yards.computeIfAbsent(yardId, id -> new YardOccupancy(event.getSubsidiaryId()));
+
+        Map<Long, Long> movedFrom = new HashMap<>();
+        synchronized (occupancy) {
+            Set<Long> present = new HashSet<>();
+            for (TagPositionResponse tag : event.getTags()) {
+                if (tag.getBike() == null || tag.getBike().getModel() == null || tag.getBike().getStatus() == null) continue;
+
+                Long bikeId = tag.getBike().getId();
+                present.add(bikeId);
+
+                int slot = tag.getBike().getModel().ordinal() * STATUSES.length + tag.getBike().getStatus().ordinal();
+                Placement previous = occupancy.bikes.get(bikeId);
+                if (previous != null && previous.slot == slot && Objects.equals(previous.areaId, tag.getAreaId())) continue;
+
+                if (previous != null) occupancy.add(previous, -1);
+                Placement placement = new Placement(tag.getAreaId(), slot);
+                occupancy.add(placement, 1);
+                occupancy.bikes.put(bikeId, placement);
+
+                if (previous == null) {
+                    Long previousYard = bikeYards.put(bikeId, yardId);
+                    if (previousYard != null && !previousYard.equals(yardId)) movedFrom.put(bikeId, previousYard);
+                }
+            }
+
+            // Bikes that left the yard's live positions stop counting
+            occupancy.bikes.entrySet().removeIf(entry -> {
+                if (present.contains(entry.getKey())) return false;
+                occupancy.add(entry.getValue(), -1);
+                bikeYards.remove(entry.getKey(), yardId);
+                return true;
+            });
+        }
+
+        // Released outside the lock above so two yards never wait on each other
+        movedFrom.forEach((bikeId, previousYard) -> remove(previousYard, bikeId));
+    }
+
+    public YardOccupancyResponse findByYard(Long yardId) {
+        YardOccupancy occupancy = yards.get(yardId);
+        if (occupancy == null && !yardRepository.existsById(yardId)) throw new ResourceNotFoundException(YARD_NOT_FOUND_MESSAGE);
+        if (occupancy == null) return toResponse(yardId, new int[SLOTS]);
+
+        synchronized (occupancy) {
+            YardOccupancyResponse response = toResponse(yardId, occupancy.totals);
+
+            List<AreaOccupancyResponse> areas = new ArrayList<>();
+            occupancy.areas.forEach((areaId, counts) -> {
+                if (sum(counts) > 0) areas.add(toAreaResponse(areaId, counts));
+            });
+            response.setAreas(areas);
+            response.setOutsideAreas(toAreaResponse(null, occupancy.outside));
+            return response;
+        }
+    }
+
+    public SubsidiaryOccupancyResponse findBySubsidiary(Long subsidiaryId) {
+        if (!subsidiaryRepository.existsById(subsidiaryId)) throw new ResourceNotFoundException(SUBSIDIARY_NOT_FOUND_MESSAGE);
+
+        int[] totals = new int[SLOTS];
+        List<YardOccupancyResponse> yardResponses = new ArrayList<>();
+        yards.forEach((yardId, occupancy) -> {
+            if (!subsidiaryId.equals(occupancy.subsidiaryId)) return;
+
+            synchronized (occupancy) {
+                for (int i = 0; i < SLOTS; i++) totals[i] += occupancy.totals[i];
+                yardResponses.add(toResponse(yardId, occupancy.totals));
+            }
+        });
+
+        SubsidiaryOccupancyResponse response = new SubsidiaryOccupancyResponse();
+        response.setSubsidiaryId(subsidiaryId);
+        response.setTotal(sum(totals));
+        response.setCounts(toCounts(totals));
+        response.setYards(yardResponses);
+        return response;
+    }
+
+    public void forget(Long bikeId) {
+        Long yardId = bikeYards.remove(bikeId);
+        if (yardId != null) remove(yardId, bikeId);
+    }
+
+    public void evictYard(Long yardId) {
+        YardOccupancy occupancy = yards.remove(yardId);
+        if (occupancy == null) return;
+
+        synchronized (occupancy) {
+            occupancy.bikes.keySet().forEach(bikeId -> bikeYards.remove(bikeId, yardId));
+        }
+    }
+
+    private void remove(Long yardId, Long bikeId) {
+        YardOccupancy occupancy = yards.get(yardId);
+        if (occupancy == null) return;
+
+        synchronized (occupancy) {
+            Placement placement = occupancy.bikes.remove(bikeId);
+            if (placement != null) occupancy.add(placement, -1);
+        }
+    }
+
+    private YardOccupancyResponse toResponse(Long yardId, int[] totals) {
+        YardOccupancyResponse response = new YardOccupancyResponse();
+        response.setYardId(yardId);
+        response.setTotal(sum(totals));
+        response.setCounts(toCounts(totals));
+        return response;
+    }
+
+    private AreaOccupancyResponse toAreaResponse(Long areaId, int[] counts) {
+        AreaOccupancyResponse response = new AreaOccupancyResponse();
+        response.setAreaId(areaId);
+        response.setTotal(sum(counts));
+        response.setCounts(toCounts(counts));
+        return response;
+    }
+
+    private static Map<BikeModel, Map<AreaStatus, Integer>> toCounts(int[] slots) {
+        Map<BikeModel, Map<AreaStatus, Integer>> counts = new EnumMap<>(BikeModel.class);
+        for (BikeModel model : MODELS) {
+            Map<AreaStatus, Integer> byStatus = new EnumMap<>(AreaStatus.class);
+            for (AreaStatus status : STATUSES) byStatus.put(status, slots[model.ordinal() * STATUSES.length + status.ordinal()]);
+            counts.put(model, byStatus);
+        }
+        return counts;
+    }
+
+    private static int sum(int[] slots) {
+        int total = 0;
+        for (int count : slots) total += count;
+        return total;
+    }
+
+    private static class Placement {
+        private final Long areaId;
+        private final int slot;
+
+        private Placement(Long areaId, int slot) {
+            this.areaId = areaId;
+            this.slot = slot;
+        }
+    }
+
+    private static class YardOccupancy {
+        private final Long subsidiaryId;
+        private final int[] totals = new int[SLOTS];
+        private final int[] outside = new int[SLOTS];
+        private final Map<Long, int[]> areas = new HashMap<>();
+        private final Map<Long, Placement> bikes = new HashMap<>();
+
+        private YardOccupancy(Long subsidiaryId) {
+            this.subsidiaryId = subsidiaryId;
+        }
+
+        private void add(Placement placement, int delta) {
+            int[] counts = placement.areaId == null ? outside : areas.computeIfAbsent(placement.areaId, id -> new int[SLOTS]);
+            counts[placement.slot] += delta;
+            totals[placement.slot] += delta;
+        }
+    }
+}
@@ -5,13 +5,15 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.otaviomiklos.mottu.dto.area.AreaRequest;
 import br.com.otaviomiklos.mottu.dto.area.AreaResponse;
 import br.com.otaviomiklos.mottu.entity.area.Area;
+import br.com.otaviomiklos.mottu.entity.area.AreaMongo;
+import br.com.otaviomiklos.mottu.enums.OutboxAggregate;
 import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
 import br.com.otaviomiklos.mottu.mapper.AreaMapper;
-import br.com.otaviomiklos.mottu.repository.area.AreaMongoRepository;
 import br.com.otaviomiklos.mottu.repository.area.AreaRepository;
 
 @Service
@@ -20,18 +22,21 @@ public class AreaService {
     @Autowired
     private AreaRepository repository;
 
-    @Autowired
-    private AreaMongoRepository mongoRepository;
 
     @Autowired
     private AreaMapper mapper;
 
+    @Autowired
+    private OutboxService outbox;
+
     private final String NOT_FOUND_MESSAGE = "Não foi possível encontrar uma área com esse ID";
 
+    @Transactional
     public AreaResponse save(AreaRequest request) {
         Area area = repository.save(mapper.toEntity(request));
-        mongoRepository.save(mapper.toMongoEntity(request, area.getId())); 
-        return mapper.toResponse(area);
+        AreaMongo areaMongo = mapper.toMongoEntity(request, area.getId());
+        outbox.upsert(OutboxAggregate.AREA, area.getId(), area.getYard().getId(), areaMongo);
+        return mapper.toResponse(area, areaMongo);
     }
 
     public List<AreaResponse> findAll() {
@@ -45,6 +50,7 @@ public class AreaService {
         return mapper.toResponse(area.get());
     }
 
+    @Transactional
     public AreaResponse update(AreaRequest request, Long id) {
         Optional<Area> area = repository.findById(id);
         if (area.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
@@ -52,14 +58,20 @@ public class AreaService {
         Area newArea = mapper.toEntity(request);
         newArea.setId(id);
 
+        AreaMongo newMongoArea = mapper.toMongoEntity(request, id);
+
         Area savedArea = repository.save(newArea);
-        return mapper.toResponse(savedArea);
+        outbox.upsert(OutboxAggregate.AREA, id, savedArea.getYard().getId(), newMongoArea);
+
+        return mapper.toResponse(savedArea, newMongoArea);
     }
 
+    @Transactional
     public void delete(Long id) {
         Optional<Area> area = repository.findById(id);
         if (area.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
         
         repository.deleteById(id);
+        outbox.delete(OutboxAggregate.AREA, id, area.get().getYard().getId());
     }
 }
@@ -0,0 +1,127 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.otaviomiklos.mottu.dto.apriltag.DetectionResult;
+import br.com.otaviomiklos.mottu.exception.DetectorBusyException;
+
+/**
+ * Sends a batch of images to the detector, at most {@code batch-parallelism} at a time, and
+ * writes one NDJSON line per image as soon as its detection finishes. A failed image only
+ * produces an error line, the rest of the batch keeps going.
+ */
+@Service
+public class BatchDetectionService {
+
+    private static final MediaType NDJSON_UTF8 = new MediaType(MediaType.APPLICATION_NDJSON, StandardCharsets.UTF_8);
+
+    @Autowired
+    private ImageSenderService imageService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${mottu.detector.batch-parallelism}")
+    private int parallelism;
+
+    @Value("${mottu.stream.timeout}")
+    private long timeout;
+
+    public ResponseBodyEmitter detect(List<MultipartFile> files) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout);
+        if (files == null || files.isEmpty()) {
+            emitter.complete();
+            return emitter;
+        }
+
+        Batch batch = new Batch(files, emitter);
+        emitter.onTimeout(() -> cancel(batch, null));
+        emitter.onError(ex -> cancel(batch, ex));
+
+        for (int i = 0; i < Math.min(parallelism, files.size()); i++) detectNext(batch);
+        return emitter;
+    }
+
+    // Each finished image starts the next one, so the batch never has more than
+    // parallelism detections outstanding and no thread waits on the others
+    private void detectNext(Batch batch) {
+        if (batch.cancelled.get()) return;
+
+        int index = batch.next.getAndIncrement();
+        if (index >= batch.files.size()) return;
+
+        MultipartFile file = batch.files.get(index);
+        imageService.sendImage(file)
+            .handle((response, ex) -> toResult(index, file, response, ex))
+            .thenAccept(result -> {
+                send(batch, result);
+                if (batch.done.incrementAndGet() == batch.files.size()) finish(batch, null);
+                else detectNext(batch);
+            });
+    }
+
+    private DetectionResult toResult(int index, MultipartFile file, ResponseEntity<String> response, Throwable ex) {
+        if (ex == null) {
+            int status = response.getStatusCode().value();
+            if (status == HttpStatus.OK.value()) return new DetectionResult(index, file.getOriginalFilename(), status, response.getBody(), null);
+            return new DetectionResult(index, file.getOriginalFilename(), status, null, response.getBody());
+        }
+
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        HttpStatus status = cause instanceof DetectorBusyException ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.INTERNAL_SERVER_ERROR;
+        return new DetectionResult(index, file.getOriginalFilename(), status.value(), null, cause.getMessage());
+    }
+
+    private void send(Batch batch, DetectionResult result) {
+        if (batch.cancelled.get()) return;
+        try {
+            batch.emitter.send(objectMapper.writeValueAsString(result) + "\n", NDJSON_UTF8);
+        } catch (IOException | IllegalStateException ex) {
+            // The client went away, stop feeding the detector for this batch
+            cancel(batch, ex);
+        }
+    }
+
+    // Once cancelled, no further image reaches the end of the batch, so the emitter is
+    // completed here instead of waiting for a done count that will never be reached
+    private void cancel(Batch batch, Throwable ex) {
+        batch.cancelled.set(true);
+        finish(batch, ex);
+    }
+
+    private void finish(Batch batch, Throwable ex) {
+        if (!batch.completed.compareAndSet(false, true)) return;
+        if (ex == null) batch.emitter.complete();
+        else batch.emitter.completeWithError(ex);
+    }
+
+    private static class Batch {
+        private final List<MultipartFile> files;
+        private final ResponseBodyEmitter emitter;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger done = new AtomicInteger();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Batch(List<MultipartFile> files, ResponseBodyEmitter emitter) {
+            this.files = files;
+            this.emitter = emitter;
+        }
+    }
+}
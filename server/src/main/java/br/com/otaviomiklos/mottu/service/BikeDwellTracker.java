@@ -0,0 +1,150 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import br.com.otaviomiklos.mottu.dto.analytics.BikeDwellResponse;
+import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionResponse;
+import br.com.otaviomiklos.mottu.enums.AreaStatus;
+import br.com.otaviomiklos.mottu.event.YardTagsUpdatedEvent;
+import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
+import br.com.otaviomiklos.mottu.repository.BikeRepository;
+import br.com.otaviomiklos.mottu.repository.yard.YardRepository;
+
+/**
+ * Running dwell counters per bike, fed by every detection. The time between two
+ * sightings is credited to the zone of the earlier one, so each detection costs a map
+ * lookup and a few additions. Gaps longer than {@code max-gap} are treated as the bike
+ * being out of sight and are not credited to any zone.
+ */
+@Component
+public class BikeDwellTracker {
+
+    private static final String BIKE_NOT_FOUND_MESSAGE = "Não foi possível encontrar uma moto com esse ID";
+    private static final String YARD_NOT_FOUND_MESSAGE = "Não foi possível encontrar um pátio com esse ID";
+
+    // One slot per AreaStatus plus the last one for "outside every area"
+    private static final AreaStatus[] ZONES = AreaStatus.values();
+    private static final int OUTSIDE = ZONES.length;
+
+    @Autowired
+    private BikeRepository bikeRepository;
+
+    @Autowired
+    private YardRepository yardRepository;
+
+    @Value("${mottu.analytics.max-gap}")
+    private long maxGap;
+
+    private final Map<Long, BikeDwell> bikes = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onTagsUpdated(YardTagsUpdatedEvent event) {
+        for (TagPositionResponse tag : event.getDetected()) {
+            if (tag.getBike() == null) continue;
+            record(tag.getBike().getId(), tag.getBike().getStatus(), event.getYardId(), tag.getAreaStatus(), !tag.isInRightArea(), event.getTimestamp());
+        }
+    }
+
+    public void forget(Long bikeId) {
+        bikes.remove(bikeId);
+    }
+
+    public BikeDwellResponse findByBike(Long bikeId) {
+        if (!bikeRepository.existsById(bikeId)) throw new ResourceNotFoundException(BIKE_NOT_FOUND_MESSAGE);
+
+        BikeDwell dwell = bikes.get(bikeId);
+        long now = System.currentTimeMillis();
+        if (dwell == null) {
+            BikeDwellResponse response = new BikeDwellResponse();
+            response.setBikeId(bikeId);
+            response.setDwell(new EnumMap<>(AreaStatus.class));
+            return response;
+        }
+
+        synchronized (dwell) {
+            return toResponse(bikeId, dwell, now);
+        }
+    }
+
+    public List<BikeDwellResponse> findByYard(Long yardId, AreaStatus bikeStatus) {
+        if (!yardRepository.existsById(yardId)) throw new ResourceNotFoundException(YARD_NOT_FOUND_MESSAGE);
+
+        long now = System.currentTimeMillis();
+        List<BikeDwellResponse> responses = new ArrayList<>();
+        bikes.forEach((bikeId, dwell) -> {
+            synchronized (dwell) {
+                if (!yardId.equals(dwell.yardId)) return;
+                if (bikeStatus != null && bikeStatus != dwell.bikeStatus) return;
+                responses.add(toResponse(bikeId, dwell, now));
+            }
+        });
+        return responses;
+    }
+
+    private void record(Long bikeId, AreaStatus bikeStatus, Long yardId, AreaStatus zone, boolean misplaced, long timestamp) {
+        BikeDwell dwell = bikes.computeIfAbsent(bikeId, id -> new BikeDwell());
+        synchronized (dwell) {
+            if (dwell.lastSeen != null) {
+                if (timestamp < dwell.lastSeen) return;
+
+                long elapsed = timestamp - dwell.lastSeen;
+                if (elapsed <= maxGap && yardId.equals(dwell.yardId)) {
+                    dwell.time[dwell.zone] += elapsed;
+                    if (dwell.misplacedSince != null) dwell.misplaced += elapsed;
+                }
+            }
+
+            int slot = zone == null ? OUTSIDE : zone.ordinal();
+            boolean moved = dwell.lastSeen == null || slot != dwell.zone || !yardId.equals(dwell.yardId)
+                || timestamp - dwell.lastSeen > maxGap;
+            if (moved) dwell.zoneSince = timestamp;
+
+            if (!misplaced) dwell.misplacedSince = null;
+            else if (dwell.misplacedSince == null || moved) dwell.misplacedSince = timestamp;
+
+            dwell.zone = slot;
+            dwell.yardId = yardId;
+            dwell.bikeStatus = bikeStatus;
+            dwell.lastSeen = timestamp;
+        }
+    }
+
+    private BikeDwellResponse toResponse(Long bikeId, BikeDwell dwell, long now) {
+        Map<AreaStatus, Long> time = new EnumMap<>(AreaStatus.class);
+        for (AreaStatus status : ZONES) time.put(status, dwell.time[status.ordinal()]);
+
+        BikeDwellResponse response = new BikeDwellResponse();
+        response.setBikeId(bikeId);
+        response.setBikeStatus(dwell.bikeStatus);
+        response.setYardId(dwell.yardId);
+        response.setZone(dwell.zone == OUTSIDE ? null : ZONES[dwell.zone]);
+        response.setZoneSince(dwell.zoneSince);
+        response.setLastSeen(dwell.lastSeen);
+        response.setSinceLastSeen(now - dwell.lastSeen);
+        response.setDwell(time);
+        response.setOutsideAreas(dwell.time[OUTSIDE]);
+        response.setMisplaced(dwell.misplaced);
+        response.setMisplacedSince(dwell.misplacedSince);
+        return response;
+    }
+
+    private static class BikeDwell {
+        private final long[] time = new long[OUTSIDE + 1];
+        private long misplaced;
+        private int zone;
+        private Long zoneSince;
+        private Long misplacedSince;
+        private Long lastSeen;
+        private Long yardId;
+        private AreaStatus bikeStatus;
+    }
+}
@@ -5,9 +5,13 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import br.com.otaviomiklos.mottu.dto.bike.BikeListItem;
+import br.com.otaviomiklos.mottu.dto.bike.BikeListResponse;
 import br.com.otaviomiklos.mottu.dto.bike.BikeRequest;
 import br.com.otaviomiklos.mottu.dto.bike.BikeDetailsDTO;
+import br.com.otaviomiklos.mottu.dto.page.CursorPage;
 import br.com.otaviomiklos.mottu.entity.Apriltag;
 import br.com.otaviomiklos.mottu.entity.Bike;
 import br.com.otaviomiklos.mottu.enums.AreaStatus;
@@ -30,6 +34,24 @@ public class BikeService {
     @Autowired
     private BikeMapper mapper;
 
+    @Autowired
+    private BikeYardUpdater yardUpdater;
+
+    @Autowired
+    private BikeDwellTracker dwellTracker;
+
+    @Autowired
+    private MisplacedBikeTracker misplacedTracker;
+
+    @Autowired
+    private AreaOccupancyCounter occupancyCounter;
+
+    @Autowired
+    private KeysetPagination pagination;
+
+    @Autowired
+    private NdjsonExportService exportService;
+
     private static final String NOT_FOUND_MESSAGE = "Não foi possível encontrar uma moto com esse ID";
     private static final String PLATE_NOT_FOUND_MESSAGE = "Não foi possível encontrar uma moto com essa placa";
     private static final String TAG_NOT_FOUND_MESSAGE = "Não foi possível encontrar uma tag com esse código dentro dessa filial";
@@ -43,9 +65,16 @@ public class BikeService {
         return mapper.toResponse(bike);
     }
 
-    public List<BikeDetailsDTO> findAll() {
-        List<Bike> bikes = repository.findAll();
-        return mapper.toResponse(bikes);
+    public BikeListResponse findAll(Long after, Integer limit) {
+        int size = pagination.size(limit);
+        List<BikeListItem> rows = repository.findListItemsAfter(pagination.after(after), pagination.pageable(size));
+
+        CursorPage<BikeListItem> page = pagination.page(rows, size, BikeListItem::getId, bikes -> bikes);
+        return mapper.toListResponse(page.getItems(), page.getNextCursor());
+    }
+
+    public StreamingResponseBody exportAll() {
+        return exportService.export(repository::streamListItems, bikes -> bikes);
     }
 
     public BikeDetailsDTO findByPlate(String plate) {
@@ -73,6 +102,7 @@ public class BikeService {
         newBike.setId(id);
 
         Bike savedBike = repository.save(newBike);
+        forget(id);
         return mapper.toResponse(savedBike);
     }
 
@@ -81,6 +111,7 @@ public class BikeService {
         if (bike.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
         
         repository.deleteById(id);
+        forget(id);
     }
 
     public void linkBikeToTag(String plate, String tagCode, Long subsidiaryId) {
@@ -116,5 +147,14 @@ public class BikeService {
         bikeToSave.setYard(null);
 
         repository.save(bikeToSave);
+        forget(bikeToSave.getId());
+    }
+
+    // Status, model or tag changed, so every tracker drops what it derived from the old bike
+    private void forget(Long id) {
+        yardUpdater.forget(id);
+        dwellTracker.forget(id);
+        misplacedTracker.forget(id);
+        occupancyCounter.forget(id);
     }
 }
@@ -0,0 +1,79 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionResponse;
+import br.com.otaviomiklos.mottu.event.YardTagsUpdatedEvent;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind for {@code Bike.yard}. A bike is queued only when it shows up in a
+ * yard other than the last one seen, changes are coalesced per bike and flushed
+ * in a single JDBC batch.
+ */
+@Component
+public class BikeYardUpdater {
+
+    private static final Logger log = LoggerFactory.getLogger(BikeYardUpdater.class);
+
+    private static final String UPDATE_SQL =
+        "UPDATE tb_mottu_bikes SET yard_id = ? WHERE id = ? AND (yard_id IS NULL OR yard_id <> ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Long> knownYards = new ConcurrentHashMap<>();
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onTagsUpdated(YardTagsUpdatedEvent event) {
+        for (TagPositionResponse tag : event.getTags()) {
+            if (tag.getBike() != null) assign(tag.getBike().getId(), event.getYardId());
+        }
+    }
+
+    public void assign(Long bikeId, Long yardId) {
+        Long previous = knownYards.put(bikeId, yardId);
+        if (!yardId.equals(previous)) pending.put(bikeId, yardId);
+    }
+
+    public void forget(Long bikeId) {
+        knownYards.remove(bikeId);
+        pending.remove(bikeId);
+    }
+
+    @Scheduled(fixedDelayString = "${mottu.bike-yard.flush-interval}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        List<Object[]> batch = new ArrayList<>();
+        for (Long bikeId : new ArrayList<>(pending.keySet())) {
+            Long yardId = pending.remove(bikeId);
+            if (yardId != null) batch.add(new Object[] { yardId, bikeId, yardId });
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+        } catch (DataAccessException ex) {
+            batch.forEach(row -> pending.putIfAbsent((Long) row[1], (Long) row[0]));
+            log.warn("Unable to flush {} bike yard assignments", batch.size(), ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.otaviomiklos.mottu.entity.camera.CameraMongo;
+import br.com.otaviomiklos.mottu.geo.Homography;
+
+/**
+ * Solved pixel-to-yard homography per camera. A camera's matrix is solved once and then
+ * reused by every pixel ingestion until the camera is saved, updated or deleted. Cameras
+ * whose points do not give a valid transform are kept as empty.
+ *
+ * <p>Transform points are clicked on a fixed-size canvas in the client, so detector pixels
+ * are rescaled from their frame size into that canvas before the homography is applied.
+ */
+@Service
+public class CameraCalibrationService {
+
+    @Autowired
+    private GeometryCache geometryCache;
+
+    @Value("${mottu.calibration.canvas-width}")
+    private int canvasWidth;
+
+    @Value("${mottu.calibration.canvas-height}")
+    private int canvasHeight;
+
+    private final Map<Long, Optional<Homography>> homographies = new ConcurrentHashMap<>();
+
+    public Optional<Homography> forCamera(Long cameraId) {
+        return homographies.computeIfAbsent(cameraId, id -> geometryCache.camera(id).flatMap(this::solve));
+    }
+
+    /**
+     * Rescales {@code count} pixels of a {@code frameWidth} x {@code frameHeight} frame into
+     * canvas space in place. Without a frame size the pixels are already in canvas space.
+     * Returns false when a pixel falls outside the frame.
+     */
+    public boolean toCanvas(float[] xs, float[] ys, int count, Integer frameWidth, Integer frameHeight) {
+        double width = frameWidth != null ? frameWidth : canvasWidth;
+        double height = frameHeight != null ? frameHeight : canvasHeight;
+        double scaleX = canvasWidth / width;
+        double scaleY = canvasHeight / height;
+
+        for (int i = 0; i < count; i++) {
+            if (!(xs[i] >= 0 && xs[i] <= width && ys[i] >= 0 && ys[i] <= height)) return false;
+            xs[i] = (float) (xs[i] * scaleX);
+            ys[i] = (float) (ys[i] * scaleY);
+        }
+        return true;
+    }
+
+    public void recompute(CameraMongo camera) {
+        homographies.put(camera.getMysqlId(), solve(camera));
+    }
+
+    public void evict(Long cameraId) {
+        homographies.remove(cameraId);
+    }
+
+    private Optional<Homography> solve(CameraMongo camera) {
+        return Homography.solve(camera.getTransformPoints(), camera.getYardPoints());
+    }
+}
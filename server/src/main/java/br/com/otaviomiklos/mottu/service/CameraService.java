@@ -5,13 +5,15 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.otaviomiklos.mottu.dto.camera.CameraRequest;
 import br.com.otaviomiklos.mottu.dto.camera.CameraResponse;
 import br.com.otaviomiklos.mottu.entity.camera.Camera;
+import br.com.otaviomiklos.mottu.entity.camera.CameraMongo;
+import br.com.otaviomiklos.mottu.enums.OutboxAggregate;
 import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
 import br.com.otaviomiklos.mottu.mapper.CameraMapper;
-import br.com.otaviomiklos.mottu.repository.camera.CameraMongoRepository;
 import br.com.otaviomiklos.mottu.repository.camera.CameraRepository;
 
 @Service
@@ -20,18 +22,25 @@ public class CameraService {
     @Autowired
     private CameraRepository repository;
 
-    @Autowired
-    private CameraMongoRepository mongoRepository;
 
     @Autowired
     private CameraMapper mapper;
 
+    @Autowired
+    private OutboxService outbox;
+
+    @Autowired
+    private CameraCalibrationService calibration;
+
     private final String NOT_FOUND_MESSAGE = "Não foi possível encontrar uma câmera com esse ID";
 
+    @Transactional
     public CameraResponse save(CameraRequest request) {
         Camera camera = repository.save(mapper.toEntity(request));
-        mongoRepository.save(mapper.toMongoEntity(request, camera.getId())); 
-        return mapper.toResponse(camera);
+        CameraMongo cameraMongo = mapper.toMongoEntity(request, camera.getId());
+        outbox.upsert(OutboxAggregate.CAMERA, camera.getId(), camera.getYard().getId(), cameraMongo);
+        calibration.recompute(cameraMongo);
+        return mapper.toResponse(camera, cameraMongo);
     }
 
     public List<CameraResponse> findAll() {
@@ -45,6 +54,7 @@ public class CameraService {
         return mapper.toResponse(camera.get());
     }
 
+    @Transactional
     public CameraResponse update(CameraRequest request, Long id) {
         Optional<Camera> camera = repository.findById(id);
         if (camera.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
@@ -52,14 +62,22 @@ public class CameraService {
         Camera newCamera = mapper.toEntity(request);
         newCamera.setId(id);
 
+        CameraMongo newMongoCamera = mapper.toMongoEntity(request, id);
+
         Camera savedCamera = repository.save(newCamera);
-        return mapper.toResponse(savedCamera);
+        outbox.upsert(OutboxAggregate.CAMERA, id, savedCamera.getYard().getId(), newMongoCamera);
+        calibration.recompute(newMongoCamera);
+
+        return mapper.toResponse(savedCamera, newMongoCamera);
     }
 
+    @Transactional
     public void delete(Long id) {
         Optional<Camera> camera = repository.findById(id);
         if (camera.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
         
         repository.deleteById(id);
+        outbox.delete(OutboxAggregate.CAMERA, id, camera.get().getYard() != null ? camera.get().getYard().getId() : null);
+        calibration.evict(id);
     }
 }
@@ -0,0 +1,89 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.otaviomiklos.mottu.dto.cache.CacheStatsResponse;
+import br.com.otaviomiklos.mottu.mapper.CacheStatsMapper;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Detection results keyed by the SHA-256 of the image, so a re-uploaded photo is answered
+ * without calling tag_detection. Identical uploads in flight at the same time share one
+ * detection, and failed detections are never cached.
+ */
+@Service
+public class DetectionCache {
+
+    // Rough per-entry overhead (key, response, cache node) added to the body size
+    private static final int ENTRY_OVERHEAD = 256;
+    private static final int BUFFER_SIZE = 8192;
+
+    @Autowired
+    private CacheStatsMapper statsMapper;
+
+    @Value("${mottu.cache.detection.maximum-weight}")
+    private long maximumWeight;
+
+    @Value("${mottu.cache.detection.ttl}")
+    private long ttl;
+
+    private AsyncCache<String, ResponseEntity<String>> results;
+
+    @PostConstruct
+    public void init() {
+        results = Caffeine.newBuilder()
+            .maximumWeight(maximumWeight)
+            .weigher((String key, ResponseEntity<String> response) -> ENTRY_OVERHEAD + key.length() * 2
+                + (response.getBody() != null ? response.getBody().length() * 2 : 0))
+            .expireAfterWrite(Duration.ofMillis(ttl))
+            .recordStats()
+            .buildAsync();
+    }
+
+    public CompletableFuture<ResponseEntity<String>> get(Resource file, Supplier<CompletableFuture<ResponseEntity<String>>> detection) {
+        String key;
+        try {
+            key = hash(file);
+        } catch (IOException ex) {
+            return detection.get();
+        }
+        return results.get(key, (hash, executor) -> detection.get());
+    }
+
+    public CacheStatsResponse stats() {
+        return statsMapper.toResponse(results.synchronous());
+    }
+
+    // Hashes the spooled part with a fixed buffer instead of loading it into heap
+    private String hash(Resource file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream input = file.getInputStream()) {
+            int read;
+            while ((read = input.read(buffer)) != -1) digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,249 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import br.com.otaviomiklos.mottu.dto.apriltag.DetectionJobResponse;
+import br.com.otaviomiklos.mottu.enums.DetectionJobStatus;
+import br.com.otaviomiklos.mottu.exception.QueueFullException;
+import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
+import br.com.otaviomiklos.mottu.exception.UnableToProcessImage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Detection jobs run by a fixed pool of workers fed from a bounded queue. Submitting only
+ * spools the upload to a temp file and returns the job id; clients poll the job or
+ * subscribe to it. Finished jobs are dropped after a TTL.
+ */
+@Service
+public class DetectionJobService {
+
+    private static final String NOT_FOUND_MESSAGE = "Não foi possível encontrar um job com esse ID";
+    private static final String QUEUE_FULL_MESSAGE = "A fila de detecção está cheia, tente novamente mais tarde";
+    private static final String UNABLE_TO_PROCESS_MESSAGE = "Não foi possível processar a imagem";
+    private static final String RESULT_EVENT = "result";
+
+    @Autowired
+    private ImageSenderService imageService;
+
+    @Value("${mottu.detection-jobs.workers}")
+    private int workers;
+
+    @Value("${mottu.detection-jobs.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${mottu.detection-jobs.ttl}")
+    private long ttl;
+
+    @Value("${mottu.detection-jobs.retry-after}")
+    private long retryAfter;
+
+    @Value("${mottu.stream.timeout}")
+    private long streamTimeout;
+
+    private final Map<String, DetectionJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "detection-job-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public DetectionJobResponse submit(MultipartFile file) {
+        // The servlet container deletes the part when the request ends, so the job
+        // keeps its own copy on disk until a worker has sent it
+        Path spool;
+        try {
+            spool = Files.createTempFile("detection-", ".upload");
+        } catch (IOException ex) {
+            throw new UnableToProcessImage(UNABLE_TO_PROCESS_MESSAGE);
+        }
+
+        try {
+            file.transferTo(spool);
+        } catch (IOException | RuntimeException ex) {
+            delete(spool);
+            throw new UnableToProcessImage(UNABLE_TO_PROCESS_MESSAGE);
+        }
+
+        DetectionJob job = new DetectionJob(UUID.randomUUID().toString(), file.getOriginalFilename(), spool);
+        jobs.put(job.id, job);
+
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.id);
+            delete(spool);
+            throw new QueueFullException(QUEUE_FULL_MESSAGE, retryAfter);
+        }
+
+        return toResponse(job);
+    }
+
+    public DetectionJobResponse findById(String id) {
+        return toResponse(find(id));
+    }
+
+    public SseEmitter subscribe(String id) {
+        DetectionJob job = find(id);
+        SseEmitter emitter = new SseEmitter(streamTimeout);
+
+        synchronized (job) {
+            if (job.finishedAt == null) {
+                job.subscribers.add(emitter);
+                emitter.onCompletion(() -> unsubscribe(job, emitter));
+                emitter.onTimeout(() -> unsubscribe(job, emitter));
+                return emitter;
+            }
+        }
+
+        send(emitter, toResponse(job));
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${mottu.detection-jobs.cleanup-interval}")
+    public void cleanup() {
+        long expired = System.currentTimeMillis() - ttl;
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt < expired);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        jobs.values().forEach(job -> delete(job.spool));
+    }
+
+    private void run(DetectionJob job) {
+        job.status = DetectionJobStatus.RUNNING;
+
+        FileSystemResource image = new FileSystemResource(job.spool) {
+            @Override
+            public String getFilename() {
+                return job.filename;
+            }
+        };
+
+        try {
+            ResponseEntity<String> response = imageService.sendImage(image).join();
+            if (response.getStatusCode() == HttpStatus.OK) {
+                // The body of a 200 is the tag code already parsed by the sender
+                job.status = DetectionJobStatus.FOUND;
+                job.tagCode = response.getBody();
+            } else {
+                job.status = DetectionJobStatus.NOT_FOUND;
+                job.error = response.getBody();
+            }
+        } catch (RuntimeException ex) {
+            // Cancellations and synchronous failures end the job too, never leaving it RUNNING
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            job.status = DetectionJobStatus.FAILED;
+            job.error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        } finally {
+            delete(job.spool);
+            finish(job);
+        }
+    }
+
+    private void finish(DetectionJob job) {
+        List<SseEmitter> subscribers;
+        synchronized (job) {
+            job.finishedAt = System.currentTimeMillis();
+            subscribers = new ArrayList<>(job.subscribers);
+            job.subscribers.clear();
+        }
+
+        DetectionJobResponse response = toResponse(job);
+        subscribers.forEach(emitter -> send(emitter, response));
+    }
+
+    private void send(SseEmitter emitter, DetectionJobResponse response) {
+        try {
+            emitter.send(SseEmitter.event().name(RESULT_EVENT).data(response));
+            emitter.complete();
+        } catch (IOException | IllegalStateException ex) {
+            emitter.completeWithError(ex);
+        }
+    }
+
+    private void unsubscribe(DetectionJob job, SseEmitter emitter) {
+        synchronized (job) {
+            job.subscribers.remove(emitter);
+        }
+    }
+
+    private DetectionJob find(String id) {
+        DetectionJob job = jobs.get(id);
+        if (job == null) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
+        return job;
+    }
+
+    private void delete(Path spool) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException ex) {
+            spool.toFile().deleteOnExit();
+        }
+    }
+
+    private DetectionJobResponse toResponse(DetectionJob job) {
+        DetectionJobResponse response = new DetectionJobResponse();
+        response.setId(job.id);
+        response.setFilename(job.filename);
+        response.setStatus(job.status);
+        response.setTagCode(job.tagCode);
+        response.setError(job.error);
+        response.setCreatedAt(job.createdAt);
+        response.setFinishedAt(job.finishedAt);
+        return response;
+    }
+
+    private static class DetectionJob {
+        private final String id;
+        private final String filename;
+        private final Path spool;
+        private final long createdAt = System.currentTimeMillis();
+        private final List<SseEmitter> subscribers = new ArrayList<>();
+
+        private volatile DetectionJobStatus status = DetectionJobStatus.QUEUED;
+        private volatile String tagCode;
+        private volatile String error;
+        private volatile Long finishedAt;
+
+        private DetectionJob(String id, String filename, Path spool) {
+            this.id = id;
+            this.filename = filename;
+            this.spool = spool;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.otaviomiklos.mottu.dto.cache.CacheStatsResponse;
+import br.com.otaviomiklos.mottu.entity.area.AreaMongo;
+import br.com.otaviomiklos.mottu.entity.camera.CameraMongo;
+import br.com.otaviomiklos.mottu.entity.yard.YardGeometry;
+import br.com.otaviomiklos.mottu.mapper.CacheStatsMapper;
+import br.com.otaviomiklos.mottu.repository.area.AreaMongoRepository;
+import br.com.otaviomiklos.mottu.repository.camera.CameraMongoRepository;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Size-bounded cache of the Mongo geometry behind yards, areas and cameras. Yards are
+ * cached as their whole {@link YardGeometry} aggregate. Entries are keyed by the MySQL id
+ * and dropped by the outbox relay whenever the geometry is written.
+ * Missing documents are not cached.
+ */
+@Service
+public class GeometryCache {
+
+    @Autowired
+    private YardGeometryService yardGeometryService;
+
+    @Autowired
+    private AreaMongoRepository areaRepository;
+
+    @Autowired
+    private CameraMongoRepository cameraRepository;
+
+    @Autowired
+    private CacheStatsMapper statsMapper;
+
+    @Value("${mottu.cache.geometry.maximum-size}")
+    private long maximumSize;
+
+    private Cache<Long, YardGeometry> yards;
+    private Cache<Long, AreaMongo> areas;
+    private Cache<Long, CameraMongo> cameras;
+
+    @PostConstruct
+    public void init() {
+        yards = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+        areas = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+        cameras = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    public Optional<YardGeometry> yardGeometry(Long mysqlId) {
+        return Optional.ofNullable(yards.get(mysqlId, id -> yardGeometryService.findByYardId(id).orElse(null)));
+    }
+
+    public Map<Long, YardGeometry> yardGeometries(Collection<Long> mysqlIds) {
+        return yards.getAll(mysqlIds, ids -> yardGeometryService.findByYardIds(toSet(ids)));
+    }
+
+    public Optional<AreaMongo> area(Long mysqlId) {
+        return Optional.ofNullable(areas.get(mysqlId, id -> areaRepository.findByMysqlId(id).orElse(null)));
+    }
+
+    public Map<Long, AreaMongo> areas(Collection<Long> mysqlIds) {
+        return areas.getAll(mysqlIds, ids -> areaRepository.findByMysqlIdIn(toSet(ids)).stream()
+            .collect(Collectors.toMap(AreaMongo::getMysqlId, Function.identity(), (first, second) -> first)));
+    }
+
+    public Optional<CameraMongo> camera(Long mysqlId) {
+        return Optional.ofNullable(cameras.get(mysqlId, id -> cameraRepository.findByMysqlId(id).orElse(null)));
+    }
+
+    public void invalidateYard(Long mysqlId) {
+        yards.invalidate(mysqlId);
+    }
+
+    public void invalidateArea(Long mysqlId) {
+        areas.invalidate(mysqlId);
+    }
+
+    public void invalidateCamera(Long mysqlId) {
+        cameras.invalidate(mysqlId);
+    }
+
+    public Map<String, CacheStatsResponse> stats() {
+        Map<String, CacheStatsResponse> stats = new LinkedHashMap<>();
+        stats.put("yards", statsMapper.toResponse(yards));
+        stats.put("areas", statsMapper.toResponse(areas));
+        stats.put("cameras", statsMapper.toResponse(cameras));
+        return stats;
+    }
+
+    private static Set<Long> toSet(Iterable<? extends Long> ids) {
+        Set<Long> set = new HashSet<>();
+        ids.forEach(set::add);
+        return set;
+    }
+}
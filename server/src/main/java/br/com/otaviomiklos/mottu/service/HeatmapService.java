@@ -0,0 +1,203 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.otaviomiklos.mottu.dto.analytics.HeatmapResponse;
+import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionResponse;
+import br.com.otaviomiklos.mottu.entity.yard.HeatmapSnapshot;
+import br.com.otaviomiklos.mottu.event.YardTagsUpdatedEvent;
+import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
+import br.com.otaviomiklos.mottu.geo.OccupancyGrid;
+import br.com.otaviomiklos.mottu.repository.yard.HeatmapSnapshotRepository;
+import br.com.otaviomiklos.mottu.repository.yard.YardRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Per-yard occupancy heatmap, incremented by every detected bike position. Grids live in
+ * memory and are snapshotted to Mongo when they changed; a grid is restored from its
+ * snapshot as long as the yard boundary still gives the same layout. Requests fold the
+ * in-memory counts to the asked zoom level, never touching the position history.
+ */
+@Service
+public class HeatmapService {
+
+    private static final Logger log = LoggerFactory.getLogger(HeatmapService.class);
+
+    private static final String YARD_NOT_FOUND_MESSAGE = "Não foi possível encontrar um pátio com esse ID";
+    private static final String NO_BOUNDARY_MESSAGE = "Esse pátio não possui um limite para montar o mapa de calor";
+    private static final String MYSQL_ID = "mysqlId";
+
+    @Autowired
+    private GeometryCache geometryCache;
+
+    @Autowired
+    private YardRepository yardRepository;
+
+    @Autowired
+    private HeatmapSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${mottu.heatmap.cell-size}")
+    private float cellSize;
+
+    @Value("${mottu.heatmap.max-cells}")
+    private int maxCells;
+
+    @Value("${mottu.heatmap.max-zoom}")
+    private int maxZoom;
+
+    private final Map<Long, YardHeatmap> heatmaps = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onTagsUpdated(YardTagsUpdatedEvent event) {
+        YardHeatmap heatmap = load(event.getYardId());
+        if (heatmap.grid == null) return;
+
+        boolean counted = false;
+        for (TagPositionResponse tag : event.getDetected()) {
+            if (tag.getBike() == null) continue;
+            counted |= heatmap.grid.add(tag.getPosition().getX(), tag.getPosition().getY());
+        }
+        if (counted) heatmap.dirty.set(true);
+    }
+
+    public HeatmapResponse findByYard(Long yardId, Integer zoom) {
+        if (!yardRepository.existsById(yardId)) throw new ResourceNotFoundException(YARD_NOT_FOUND_MESSAGE);
+
+        YardHeatmap heatmap = load(yardId);
+        if (heatmap.grid == null) throw new ResourceNotFoundException(NO_BOUNDARY_MESSAGE);
+
+        OccupancyGrid grid = heatmap.grid;
+        int level = Math.max(0, Math.min(maxZoom, zoom != null ? zoom : 0));
+        long[] counts = grid.zoom(grid.copy(), level);
+
+        long max = 0;
+        long total = 0;
+        for (long count : counts) {
+            max = Math.max(max, count);
+            total += count;
+        }
+
+        HeatmapResponse response = new HeatmapResponse();
+        response.setYardId(yardId);
+        response.setZoom(level);
+        response.setOriginX(grid.getOriginX());
+        response.setOriginY(grid.getOriginY());
+        response.setCellSize(grid.getCellSize() * (1 << level));
+        response.setCols(grid.zoomed(grid.getCols(), level));
+        response.setRows(grid.zoomed(grid.getRows(), level));
+        response.setCounts(counts);
+        response.setMax(max);
+        response.setTotal(total);
+        response.setSince(heatmap.since);
+        return response;
+    }
+
+    /**
+     * Re-derives the grid layout of a yard whose geometry changed. Area and camera changes
+     * leave the boundary, and so the grid, as it is; a new layout swaps in an empty grid
+     * under the map entry, so detections and snapshots of the yard never see it missing.
+     */
+    public void refreshLayout(Long yardId) {
+        heatmaps.computeIfPresent(yardId, (id, heatmap) -> {
+            Optional<OccupancyGrid> grid = geometryCache.yardGeometry(id)
+                .flatMap(geometry -> OccupancyGrid.over(geometry.getBoundary(), cellSize, maxCells));
+
+            OccupancyGrid current = heatmap.grid;
+            if (grid.isEmpty() && current == null) return heatmap;
+            if (grid.isPresent() && current != null && current.sameLayout(
+                grid.get().getOriginX(), grid.get().getOriginY(), grid.get().getCellSize(), grid.get().getCols(), grid.get().getRows())) return heatmap;
+
+            heatmap.grid = grid.orElse(null);
+            heatmap.since = System.currentTimeMillis();
+            // The stored snapshot has the old layout, the next one replaces it
+            heatmap.dirty.set(true);
+            return heatmap;
+        });
+    }
+
+    public void delete(Long yardId) {
+        heatmaps.remove(yardId);
+        snapshotRepository.deleteByMysqlId(yardId);
+    }
+
+    @Scheduled(fixedDelayString = "${mottu.heatmap.snapshot-interval}")
+    public void snapshot() {
+        heatmaps.forEach(this::save);
+    }
+
+    @PreDestroy
+    public void flush() {
+        snapshot();
+    }
+
+    private void save(Long yardId, YardHeatmap heatmap) {
+        if (heatmap.grid == null || !heatmap.dirty.compareAndSet(true, false)) return;
+
+        OccupancyGrid grid = heatmap.grid;
+        HeatmapSnapshot snapshot = new HeatmapSnapshot();
+        snapshot.setMysqlId(yardId);
+        snapshot.setOriginX(grid.getOriginX());
+        snapshot.setOriginY(grid.getOriginY());
+        snapshot.setCellSize(grid.getCellSize());
+        snapshot.setCols(grid.getCols());
+        snapshot.setRows(grid.getRows());
+        snapshot.setCounts(grid.copy());
+        snapshot.setSince(heatmap.since);
+        snapshot.setUpdatedAt(System.currentTimeMillis());
+
+        try {
+            Query query = Query.query(Criteria.where(MYSQL_ID).is(yardId));
+            mongoTemplate.findAndReplace(query, snapshot, FindAndReplaceOptions.options().upsert());
+        } catch (RuntimeException ex) {
+            heatmap.dirty.set(true);
+            log.warn("Unable to snapshot the heatmap of yard {}", yardId, ex);
+        }
+    }
+
+    private YardHeatmap load(Long yardId) {
+        return heatmaps.computeIfAbsent(yardId, id -> {
+            YardHeatmap heatmap = new YardHeatmap();
+            heatmap.since = System.currentTimeMillis();
+
+            Optional<OccupancyGrid> grid = geometryCache.yardGeometry(id)
+                .flatMap(geometry -> OccupancyGrid.over(geometry.getBoundary(), cellSize, maxCells));
+            if (grid.isEmpty()) return heatmap;
+
+            heatmap.grid = grid.get();
+            snapshotRepository.findByMysqlId(id)
+                .filter(snapshot -> snapshot.getCounts() != null)
+                .filter(snapshot -> heatmap.grid.sameLayout(
+                    snapshot.getOriginX(), snapshot.getOriginY(), snapshot.getCellSize(), snapshot.getCols(), snapshot.getRows()))
+                .ifPresent(snapshot -> {
+                    heatmap.grid = OccupancyGrid.restore(
+                        snapshot.getOriginX(), snapshot.getOriginY(), snapshot.getCellSize(), snapshot.getCols(), snapshot.getRows(), snapshot.getCounts());
+                    heatmap.since = snapshot.getSince();
+                });
+            return heatmap;
+        });
+    }
+
+    private static class YardHeatmap {
+        private volatile OccupancyGrid grid;
+        private final AtomicBoolean dirty = new AtomicBoolean(false);
+        private volatile long since;
+    }
+}
@@ -1,45 +1,195 @@
 package br.com.otaviomiklos.mottu.service;
 
-import org.springframework.http.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
+import br.com.otaviomiklos.mottu.exception.DetectorBusyException;
 import br.com.otaviomiklos.mottu.exception.UnableToProcessImage;
 
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-
 @Service
 public class ImageSenderService {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private static final String UNABLE_TO_PROCESS_MESSAGE = "Não foi possível processar a imagem";
+    private static final String BUSY_MESSAGE = "O serviço de detecção está ocupado, tente novamente mais tarde";
+
+    @Autowired
+    private HttpClient detectorHttpClient;
+
+    @Autowired
+    private DetectionCache detectionCache;
+
+    @Value("${mottu.detector.endpoints}")
+    private String[] endpoints;
+
+    @Value("${mottu.detector.read-timeout}")
+    private long readTimeout;
+
+    @Value("${mottu.detector.max-in-flight}")
+    private int maxInFlight;
+
+    @Value("${mottu.detector.max-pending}")
+    private int maxPending;
+
+    private final AtomicInteger nextEndpoint = new AtomicInteger();
 
-    public ResponseEntity<String> sendImage(byte[] imageBytes, String filename) {
+    // Requests past maxInFlight wait here for a permit without holding a thread
+    private final Queue<CompletableFuture<Void>> pending = new ArrayDeque<>();
+    private int inFlight;
 
-        ByteArrayResource imageResource = new ByteArrayResource(imageBytes) {
-            @Override
-            public String getFilename() {
-                return filename;
+    public CompletableFuture<ResponseEntity<String>> sendImage(MultipartFile file) {
+        return sendImage(file.getResource());
+    }
+
+    public CompletableFuture<ResponseEntity<String>> sendImage(Resource file) {
+        return detectionCache.get(file, () -> acquire().thenCompose(permit -> {
+            CompletableFuture<ResponseEntity<String>> response;
+            try {
+                response = send(file);
+            } catch (RuntimeException ex) {
+                release();
+                throw ex;
             }
-        };
+            return response.whenComplete((result, ex) -> release());
+        }));
+    }
 
-        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-        body.add("file", imageResource);
+    private CompletableFuture<ResponseEntity<String>> send(Resource file) {
+        int start = Math.floorMod(nextEndpoint.getAndIncrement(), endpoints.length);
+        return send(file, start, endpoints.length);
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+    // Tries the endpoints round robin, moving to the next one only when the
+    // current one cannot be reached or times out
+    private CompletableFuture<ResponseEntity<String>> send(Resource file, int index, int attemptsLeft) {
+        HttpRequest request = buildRequest(endpoints[index], file);
 
-        HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
+        return detectorHttpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+            .thenApply(this::toResponse)
+            .exceptionallyCompose(ex -> {
+                if (ex.getCause() instanceof UnableToProcessImage || attemptsLeft <= 1) {
+                    return CompletableFuture.failedFuture(new UnableToProcessImage(UNABLE_TO_PROCESS_MESSAGE));
+                }
+                return send(file, (index + 1) % endpoints.length, attemptsLeft - 1);
+            });
+    }
 
-        ResponseEntity<String> response = restTemplate.postForEntity(
-            "http://tag_detection:5000/detect",
-            requestEntity,
-            String.class
-        );
+    // The upload is piped from its spooled part straight into the request body in
+    // fixed-size chunks, so the image is never held in heap as a whole
+    private HttpRequest buildRequest(String endpoint, Resource file) {
+        String boundary = UUID.randomUUID().toString();
+        String head = "--" + boundary + "\r\n"
+            + "Content-Disposition: " + contentDisposition(file.getFilename()) + "\r\n"
+            + "Content-Type: application/octet-stream\r\n\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
 
-        int status = response.getStatusCode().value();
-        if (status != 200 && status != 404) throw new UnableToProcessImage("Não foi possível processar a imagem"); 
-        return response;
+        byte[] headBytes = head.getBytes(StandardCharsets.UTF_8);
+        byte[] tailBytes = tail.getBytes(StandardCharsets.UTF_8);
+
+        HttpRequest.BodyPublisher image = HttpRequest.BodyPublishers.ofInputStream(() -> open(file));
+        // A known size keeps a plain Content-Length, otherwise the body goes out chunked
+        long size = size(file);
+        if (size >= 0) image = HttpRequest.BodyPublishers.fromPublisher(image, size);
+
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.concat(
+            HttpRequest.BodyPublishers.ofByteArray(headBytes),
+            image,
+            HttpRequest.BodyPublishers.ofByteArray(tailBytes));
+
+        return HttpRequest.newBuilder(URI.create(endpoint))
+            .timeout(Duration.ofMillis(readTimeout))
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(body)
+            .build();
+    }
+
+    // The client's filename goes into a part header, so line breaks are dropped and
+    // quotes are escaped by the ContentDisposition builder
+    private String contentDisposition(String filename) {
+        String safe = filename == null ? "" : filename.replaceAll("[\\r\\n]", "");
+        if (safe.isBlank()) safe = "image";
+        return ContentDisposition.formData().name("file").filename(safe).build().toString();
+    }
+
+    private InputStream open(Resource file) {
+        try {
+            return file.getInputStream();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private long size(Resource file) {
+        try {
+            return file.contentLength();
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+
+    // A 200 carries the tag code, parsed here once so the synchronous, batch and job paths
+    // all report the same value; a 404 keeps the detector's message
+    private ResponseEntity<String> toResponse(HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status != 200 && status != 404) throw new UnableToProcessImage(UNABLE_TO_PROCESS_MESSAGE);
+        if (status == 404) return new ResponseEntity<>(response.body(), HttpStatus.NOT_FOUND);
+
+        String tagCode = tagCode(response.body());
+        if (tagCode == null) throw new UnableToProcessImage(UNABLE_TO_PROCESS_MESSAGE);
+        return new ResponseEntity<>(tagCode, HttpStatus.OK);
+    }
+
+    // The detector answers with the bare code, possibly quoted or followed by a line break
+    private static String tagCode(String body) {
+        if (body == null) return null;
+        String code = body.strip();
+        if (code.length() >= 2 && code.startsWith("\"") && code.endsWith("\"")) code = code.substring(1, code.length() - 1).strip();
+        return code.isEmpty() ? null : code;
+    }
+
+    private synchronized CompletableFuture<Void> acquire() {
+        if (inFlight < maxInFlight) {
+            inFlight++;
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (pending.size() >= maxPending) return CompletableFuture.failedFuture(new DetectorBusyException(BUSY_MESSAGE));
+
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        pending.add(permit);
+        return permit;
+    }
+
+    // Hands the permit straight to the next waiting request, if any
+    private void release() {
+        CompletableFuture<Void> next;
+        synchronized (this) {
+            next = pending.poll();
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+        }
+        next.complete(null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import br.com.otaviomiklos.mottu.dto.page.CursorPage;
+
+/**
+ * Keyset pagination on the entity id. Queries ask for one row more than the page size,
+ * so the presence of that extra row is what tells whether there is a next page.
+ */
+@Component
+public class KeysetPagination {
+
+    @Value("${mottu.pagination.default-limit}")
+    private int defaultLimit;
+
+    @Value("${mottu.pagination.max-limit}")
+    private int maxLimit;
+
+    public long after(Long after) {
+        return after != null ? after : 0L;
+    }
+
+    public int size(Integer limit) {
+        if (limit == null || limit <= 0) return defaultLimit;
+        return Math.min(limit, maxLimit);
+    }
+
+    public Pageable pageable(int size) {
+        return PageRequest.ofSize(size + 1);
+    }
+
+    public <E, R> CursorPage<R> page(List<E> rows, int size, Function<E, Long> id, Function<List<E>, List<R>> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        Long nextCursor = hasNext ? id.apply(pageRows.get(pageRows.size() - 1)) : null;
+        return new CursorPage<>(mapper.apply(pageRows), nextCursor);
+    }
+}
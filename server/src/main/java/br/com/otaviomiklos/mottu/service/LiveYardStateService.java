@@ -0,0 +1,295 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.client.result.UpdateResult;
+
+import br.com.otaviomiklos.mottu.dto.point.PointRequest;
+import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionRequest;
+import br.com.otaviomiklos.mottu.entity.Point;
+import br.com.otaviomiklos.mottu.entity.yard.TagSighting;
+import br.com.otaviomiklos.mottu.entity.yard.YardMongo;
+import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
+import br.com.otaviomiklos.mottu.repository.yard.YardMongoRepository;
+import br.com.otaviomiklos.mottu.repository.yard.YardRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the latest tag positions of every yard in memory, keyed by yard id and tag code.
+ * Ingestion and reads are served from here; Mongo is only touched when a yard is first
+ * loaded and by the periodic checkpoint.
+ *
+ * <p>Every tag remembers the camera that saw it last. A camera's frame only replaces the
+ * tags that camera reported before, so cameras covering the same yard merge instead of
+ * overwriting each other. The checkpoint sends one conditional {@code $set} or
+ * {@code $unset} per changed tag in an unordered bulk write, and a write never replaces
+ * a newer sighting already stored by another instance.
+ *
+ * <p>A yard's Mongo document is only written once the outbox relay runs. A yard that exists
+ * in MySQL but has no document yet starts with an empty state, and its checkpoint waits
+ * until the relay has written the document.
+ */
+@Service
+public class LiveYardStateService {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveYardStateService.class);
+    private static final String MYSQL_ID = "mysqlId";
+    private static final String POSITIONS = "positions";
+    private static final String TIMESTAMP = "timestamp";
+    private static final String LEGACY_TAGS = "tags";
+
+    @Autowired
+    private YardMongoRepository mongoRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private YardRepository yardRepository;
+
+    private final Map<Long, LiveYardState> yards = new ConcurrentHashMap<>();
+
+    private static final String NOT_FOUND_MESSAGE = "Não foi possível encontrar um pátio com esse ID";
+
+    /**
+     * Merges one camera frame into the yard, given column-wise: the i-th tag has code
+     * {@code codes[i]} at {@code (xs[i], ys[i])}. Tags with a null code are skipped.
+     * The timestamp must be the server's receive time, since it decides which camera's
+     * sighting of a tag wins. Returns the sightings that were accepted, leaving out the
+     * ones another camera had already reported later.
+     */
+    public List<TagSighting> update(Long mysqlId, Long cameraId, String[] codes, float[] xs, float[] ys, int count, long timestamp) {
+        LiveYardState state = load(mysqlId);
+        synchronized (state) {
+            Map<String, TagSighting> sightings = new LinkedHashMap<>(state.sightings);
+            Set<String> seen = new HashSet<>();
+            List<TagSighting> accepted = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                String code = codes[i];
+                if (code == null) continue;
+                seen.add(code);
+
+                // Another camera may already have reported a later position
+                TagSighting current = sightings.get(code);
+                if (current != null && current.getTimestamp() > timestamp) continue;
+
+                TagSighting sighting = new TagSighting(code, new Point(xs[i], ys[i]), cameraId, timestamp);
+                sightings.put(code, sighting);
+                accepted.add(sighting);
+                state.changed.add(code);
+                state.removed.remove(code);
+            }
+
+            Iterator<TagSighting> iterator = sightings.values().iterator();
+            while (iterator.hasNext()) {
+                TagSighting sighting = iterator.next();
+                if (seen.contains(sighting.getTagCode())) continue;
+                if (!Objects.equals(sighting.getCameraId(), cameraId) || sighting.getTimestamp() > timestamp) continue;
+
+                iterator.remove();
+                state.changed.remove(sighting.getTagCode());
+                state.removed.put(sighting.getTagCode(), sighting.getTimestamp());
+            }
+
+            state.sightings = Collections.unmodifiableMap(sightings);
+            return accepted;
+        }
+    }
+
+    /**
+     * Whether a timestamped frame is newer than the last one accepted from the same camera.
+     * Frames that arrive late or are retried are skipped instead of rolling positions back.
+     * The frame timestamp is the camera's own clock and is only compared with that camera's
+     * previous frames.
+     */
+    public boolean acceptFrame(Long mysqlId, Long cameraId, long timestamp, int sequence) {
+        LiveYardState state = load(mysqlId);
+        synchronized (state) {
+            long[] last = state.frames.get(cameraId);
+            if (last != null && timestamp < last[0]) return false;
+            if (last != null && timestamp == last[0] && sequence == last[1]) return false;
+
+            state.frames.put(cameraId, new long[] { timestamp, sequence });
+            return true;
+        }
+    }
+
+    public List<TagPositionRequest> read(Long mysqlId) {
+        return toRequest(load(mysqlId).sightings);
+    }
+
+    public void evict(Long mysqlId) {
+        yards.remove(mysqlId);
+    }
+
+    @Scheduled(fixedDelayString = "${mottu.live.checkpoint-interval}")
+    public void checkpoint() {
+        yards.forEach((mysqlId, state) -> {
+            if (!state.stored && !stored(mysqlId)) return;
+            state.stored = true;
+
+            Set<String> changed;
+            Map<String, Long> removed;
+            Map<String, TagSighting> sightings;
+            synchronized (state) {
+                if (state.changed.isEmpty() && state.removed.isEmpty()) return;
+                changed = state.changed;
+                removed = state.removed;
+                sightings = state.sightings;
+                state.changed = new HashSet<>();
+                state.removed = new HashMap<>();
+            }
+
+            try {
+                write(mysqlId, changed, removed, sightings);
+            } catch (RuntimeException ex) {
+                synchronized (state) {
+                    changed.forEach(code -> { if (!state.removed.containsKey(code)) state.changed.add(code); });
+                    removed.forEach((code, seenAt) -> { if (!state.changed.contains(code)) state.removed.putIfAbsent(code, seenAt); });
+                }
+                log.warn("Unable to checkpoint tags of yard {}", mysqlId, ex);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flush() {
+        checkpoint();
+    }
+
+    private void write(Long mysqlId, Set<String> changed, Map<String, Long> removed, Map<String, TagSighting> sightings) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, YardMongo.class);
+
+        for (String code : changed) {
+            TagSighting sighting = sightings.get(code);
+            if (sighting == null) continue;
+
+            String path = POSITIONS + "." + key(code);
+            Query query = Query.query(Criteria.where(MYSQL_ID).is(mysqlId).orOperator(
+                Criteria.where(path).exists(false),
+                Criteria.where(path + "." + TIMESTAMP).lte(sighting.getTimestamp())));
+            bulk.updateOne(query, new Update().set(path, sighting));
+        }
+
+        // Only drops the entry if nothing newer than what this instance last saw was stored
+        removed.forEach((code, seenAt) -> {
+            String path = POSITIONS + "." + key(code);
+            Query query = Query.query(Criteria.where(MYSQL_ID).is(mysqlId).and(path + "." + TIMESTAMP).lte(seenAt));
+            bulk.updateOne(query, new Update().unset(path));
+        });
+
+        bulk.execute();
+    }
+
+    private LiveYardState load(Long mysqlId) {
+        return yards.computeIfAbsent(mysqlId, id -> {
+            Optional<YardMongo> yard = mongoRepository.findByMysqlId(id);
+            if (yard.isEmpty()) return unstored(id);
+
+            Map<String, TagSighting> sightings = new LinkedHashMap<>();
+            if (yard.get().getPositions() != null) {
+                yard.get().getPositions().values().forEach(sighting -> sightings.put(sighting.getTagCode(), sighting));
+            } else {
+                migrate(id, sightings);
+            }
+
+            LiveYardState state = new LiveYardState();
+            state.sightings = Collections.unmodifiableMap(sightings);
+            return state;
+        });
+    }
+
+    // The relay has not written the yard's document yet, so there is nothing to load
+    private LiveYardState unstored(Long mysqlId) {
+        if (!yardRepository.existsById(mysqlId)) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
+
+        LiveYardState state = new LiveYardState();
+        state.sightings = Map.of();
+        state.stored = false;
+        return state;
+    }
+
+    private boolean stored(Long mysqlId) {
+        return mongoTemplate.exists(Query.query(Criteria.where(MYSQL_ID).is(mysqlId)), YardMongo.class);
+    }
+
+    // Yards written before positions were keyed by tag still hold a plain tags array. It is
+    // read once, stored as positions and dropped; the sightings get timestamp 0 so any new
+    // sighting replaces them
+    private void migrate(Long mysqlId, Map<String, TagSighting> sightings) {
+        Query query = Query.query(Criteria.where(MYSQL_ID).is(mysqlId));
+        query.fields().include(LEGACY_TAGS);
+        Document yard = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(YardMongo.class));
+        if (yard == null || !(yard.get(LEGACY_TAGS) instanceof List<?> tags)) return;
+
+        Map<String, TagSighting> positions = new LinkedHashMap<>();
+        for (Object item : tags) {
+            if (!(item instanceof Document tag) || !(tag.get("position") instanceof Document position)) continue;
+            String code = tag.getString("tagCode");
+            if (code == null || !(position.get("x") instanceof Number x) || !(position.get("y") instanceof Number y)) continue;
+
+            TagSighting sighting = new TagSighting(code, new Point(x.floatValue(), y.floatValue()), null, 0L);
+            sightings.put(code, sighting);
+            positions.put(key(code), sighting);
+        }
+
+        Query unmigrated = Query.query(Criteria.where(MYSQL_ID).is(mysqlId).and(POSITIONS).exists(false));
+        UpdateResult result = mongoTemplate.updateFirst(unmigrated, new Update().set(POSITIONS, positions).unset(LEGACY_TAGS), YardMongo.class);
+        if (result.getMatchedCount() > 0) return;
+
+        // Another instance migrated the yard in the meantime, its positions win
+        mongoTemplate.updateFirst(Query.query(Criteria.where(MYSQL_ID).is(mysqlId)), new Update().unset(LEGACY_TAGS), YardMongo.class);
+        sightings.clear();
+        mongoRepository.findByMysqlId(mysqlId)
+            .filter(migrated -> migrated.getPositions() != null)
+            .ifPresent(migrated -> migrated.getPositions().values().forEach(sighting -> sightings.put(sighting.getTagCode(), sighting)));
+    }
+
+    private static List<TagPositionRequest> toRequest(Map<String, TagSighting> sightings) {
+        List<TagPositionRequest> tags = new ArrayList<>(sightings.size());
+        for (TagSighting sighting : sightings.values()) {
+            Point position = sighting.getPosition();
+            tags.add(new TagPositionRequest(sighting.getTagCode(), new PointRequest(position.getX(), position.getY())));
+        }
+        return tags;
+    }
+
+    // Tag codes become field names, which cannot contain dots or start with a dollar sign
+    private static String key(String code) {
+        return code.replace("%", "%25").replace(".", "%2E").replace("$", "%24");
+    }
+
+    private static class LiveYardState {
+        private volatile Map<String, TagSighting> sightings;
+        private Set<String> changed = new HashSet<>();
+        private Map<String, Long> removed = new HashMap<>();
+        private final Map<Long, long[]> frames = new HashMap<>();
+        // Whether the yard's document exists, the checkpoint has nowhere to write before that
+        private volatile boolean stored = true;
+    }
+}
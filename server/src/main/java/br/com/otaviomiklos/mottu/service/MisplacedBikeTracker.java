@@ -0,0 +1,169 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import br.com.otaviomiklos.mottu.dto.analytics.MisplacedBikeChange;
+import br.com.otaviomiklos.mottu.dto.analytics.MisplacedBikeResponse;
+import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionResponse;
+import br.com.otaviomiklos.mottu.enums.MisplacedTransition;
+import br.com.otaviomiklos.mottu.event.MisplacedBikeEvent;
+import br.com.otaviomiklos.mottu.event.YardTagsUpdatedEvent;
+import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
+import br.com.otaviomiklos.mottu.repository.yard.YardRepository;
+
+/**
+ * Keeps the set of bikes currently standing in an area that does not match their status,
+ * per yard. Placement is evaluated once per detection and a {@link MisplacedBikeEvent} is
+ * published only when a bike enters or leaves the set, including when it disappears from
+ * the yard or shows up in another one.
+ */
+@Component
+public class MisplacedBikeTracker {
+
+    private static final String YARD_NOT_FOUND_MESSAGE = "Não foi possível encontrar um pátio com esse ID";
+
+    @Autowired
+    private YardRepository yardRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, YardMisplaced> yards = new ConcurrentHashMap<>();
+    // Yard each misplaced bike is currently counted in
+    private final Map<Long, Long> misplacedIn = new ConcurrentHashMap<>();
+
+    // Each yard is updated under its own lock, as cameras of the same yard ingest
+    // concurrently, and transitions are published under it so they go out in order
+    @EventListener
+    public void onTagsUpdated(YardTagsUpdatedEvent event) {
+        Long yardId = event.getYardId();
+        long timestamp = event.getTimestamp();
+        YardMisplaced yard = yards.computeIfAbsent(yardId, id -> new YardMisplaced());
+
+        Map<Long, Long> movedFrom = new HashMap<>();
+        synchronized (yard) {
+            yard.subsidiaryId = event.getSubsidiaryId();
+
+            for (TagPositionResponse tag : event.getDetected()) {
+                if (tag.getBike() == null) continue;
+                Long bikeId = tag.getBike().getId();
+
+                if (tag.isInRightArea()) {
+                    MisplacedBikeResponse left = yard.bikes.remove(bikeId);
+                    if (left != null) {
+                        misplacedIn.remove(bikeId, yardId);
+                        publish(yard.subsidiaryId, yardId, MisplacedTransition.LEFT, left, timestamp);
+                    }
+                    continue;
+                }
+
+                MisplacedBikeResponse current = yard.bikes.get(bikeId);
+                MisplacedBikeResponse response = toResponse(tag, current != null ? current.getSince() : timestamp, timestamp);
+                yard.bikes.put(bikeId, response);
+                if (current != null) continue;
+
+                Long previousYard = misplacedIn.put(bikeId, yardId);
+                if (previousYard != null && !previousYard.equals(yardId)) movedFrom.put(bikeId, previousYard);
+                publish(yard.subsidiaryId, yardId, MisplacedTransition.ENTERED, response, timestamp);
+            }
+
+            // Bikes no longer seen in the yard are not misplaced in it anymore. The whole yard
+            // is only walked when it has misplaced bikes to check
+            if (!yard.bikes.isEmpty()) {
+                Set<Long> present = new HashSet<>();
+                for (TagPositionResponse tag : event.getTags()) {
+                    if (tag.getBike() != null) present.add(tag.getBike().getId());
+                }
+
+                Iterator<MisplacedBikeResponse> iterator = yard.bikes.values().iterator();
+                while (iterator.hasNext()) {
+                    MisplacedBikeResponse left = iterator.next();
+                    if (present.contains(left.getBikeId())) continue;
+
+                    iterator.remove();
+                    misplacedIn.remove(left.getBikeId(), yardId);
+                    publish(yard.subsidiaryId, yardId, MisplacedTransition.LEFT, left, timestamp);
+                }
+            }
+        }
+
+        // Released outside the lock above so two yards never wait on each other
+        movedFrom.forEach((bikeId, previousYard) -> leave(previousYard, bikeId, timestamp));
+    }
+
+    public List<MisplacedBikeResponse> findByYard(Long yardId) {
+        YardMisplaced yard = yards.get(yardId);
+        if (yard == null && !yardRepository.existsById(yardId)) throw new ResourceNotFoundException(YARD_NOT_FOUND_MESSAGE);
+        if (yard == null) return new ArrayList<>();
+
+        synchronized (yard) {
+            return new ArrayList<>(yard.bikes.values());
+        }
+    }
+
+    // A deleted or relinked bike leaves the set like any other bike
+    public void forget(Long bikeId) {
+        Long yardId = misplacedIn.remove(bikeId);
+        if (yardId != null) leave(yardId, bikeId, System.currentTimeMillis());
+    }
+
+    public void evictYard(Long yardId) {
+        YardMisplaced yard = yards.remove(yardId);
+        if (yard == null) return;
+
+        long timestamp = System.currentTimeMillis();
+        synchronized (yard) {
+            yard.bikes.values().forEach(left -> {
+                misplacedIn.remove(left.getBikeId(), yardId);
+                publish(yard.subsidiaryId, yardId, MisplacedTransition.LEFT, left, timestamp);
+            });
+            yard.bikes.clear();
+        }
+    }
+
+    private void leave(Long yardId, Long bikeId, long timestamp) {
+        YardMisplaced yard = yards.get(yardId);
+        if (yard == null) return;
+
+        synchronized (yard) {
+            MisplacedBikeResponse left = yard.bikes.remove(bikeId);
+            if (left != null) publish(yard.subsidiaryId, yardId, MisplacedTransition.LEFT, left, timestamp);
+        }
+    }
+
+    private void publish(Long subsidiaryId, Long yardId, MisplacedTransition transition, MisplacedBikeResponse bike, long timestamp) {
+        eventPublisher.publishEvent(new MisplacedBikeEvent(subsidiaryId, new MisplacedBikeChange(yardId, transition, bike, timestamp)));
+    }
+
+    private MisplacedBikeResponse toResponse(TagPositionResponse tag, long since, long timestamp) {
+        MisplacedBikeResponse response = new MisplacedBikeResponse();
+        response.setBikeId(tag.getBike().getId());
+        response.setPlate(tag.getBike().getPlate());
+        response.setBikeStatus(tag.getBike().getStatus());
+        response.setTagCode(tag.getTag().getCode());
+        response.setAreaId(tag.getAreaId());
+        response.setAreaStatus(tag.getAreaStatus());
+        response.setPosition(tag.getPosition());
+        response.setSince(since);
+        response.setLastSeen(timestamp);
+        return response;
+    }
+
+    private static class YardMisplaced {
+        private Long subsidiaryId;
+        private final Map<Long, MisplacedBikeResponse> bikes = new LinkedHashMap<>();
+    }
+}
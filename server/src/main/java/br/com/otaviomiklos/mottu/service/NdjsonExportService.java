@@ -0,0 +1,76 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Writes a JPA {@link Stream} as newline-delimited JSON. Rows are mapped and flushed in
+ * small chunks and the persistence context is cleared after each one, so an export never
+ * holds more than a chunk of entities in heap.
+ */
+@Service
+public class NdjsonExportService {
+
+    private static final int CHUNK_SIZE = 100;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <E, R> StreamingResponseBody export(Supplier<Stream<E>> query, Function<List<E>, List<R>> mapper) {
+        return output -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<E> rows = query.get()) {
+                    Iterator<E> iterator = rows.iterator();
+                    List<E> chunk = new ArrayList<>(CHUNK_SIZE);
+
+                    while (iterator.hasNext()) {
+                        chunk.add(iterator.next());
+                        if (chunk.size() < CHUNK_SIZE && iterator.hasNext()) continue;
+
+                        write(mapper.apply(chunk), output);
+                        chunk.clear();
+                        entityManager.clear();
+                    }
+                }
+            });
+        };
+    }
+
+    private <R> void write(List<R> items, OutputStream output) {
+        try {
+            for (R item : items) {
+                output.write(objectMapper.writeValueAsBytes(item));
+                output.write('\n');
+            }
+            output.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
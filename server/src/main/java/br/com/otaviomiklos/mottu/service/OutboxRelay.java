@@ -0,0 +1,270 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.otaviomiklos.mottu.entity.OutboxEvent;
+import br.com.otaviomiklos.mottu.entity.camera.CameraMongo;
+import br.com.otaviomiklos.mottu.enums.OutboxAggregate;
+import br.com.otaviomiklos.mottu.enums.OutboxOperation;
+import br.com.otaviomiklos.mottu.repository.OutboxRepository;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Applies outbox events to Mongo. Each run locks a batch of ready events, keeps only the
+ * latest event per document and sends one unordered bulk write per collection. Writes
+ * are upserts and deletes keyed by {@code mysqlId}, followed by a refresh of the yard
+ * geometry aggregates they touch, so a write that fails half way is simply retried later
+ * with exponential backoff.
+ *
+ * <p>A document whose older events are still pending (postponed, or locked by another
+ * relay) is left in place until those go through, so an older payload never lands on top
+ * of a newer one. Failures are kept to the document or collection that caused them, and
+ * an event that keeps failing is marked as failed after {@code max-attempts} and no longer
+ * relayed.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final String MYSQL_ID = "mysqlId";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    // Fields written by other paths that an upsert must not clobber
+    private static final Map<OutboxAggregate, List<String>> PRESERVED_FIELDS = Map.of(
+        OutboxAggregate.YARD, List.of("positions"));
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GeometryCache geometryCache;
+
+    @Autowired
+    private AreaIndexService areaIndexService;
+
+    @Autowired
+    private CameraCalibrationService calibration;
+
+    @Autowired
+    private YardGeometryService yardGeometryService;
+
+    @Autowired
+    private HeatmapService heatmapService;
+
+    @Value("${mottu.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${mottu.outbox.retry-backoff}")
+    private long retryBackoff;
+
+    @Value("${mottu.outbox.max-backoff}")
+    private long maxBackoff;
+
+    @Value("${mottu.outbox.max-attempts}")
+    private int maxAttempts;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${mottu.outbox.relay-interval}")
+    public void relay() {
+        while (Boolean.TRUE.equals(transaction.execute(status -> relayBatch()))) {
+            // Keep draining while full batches come back
+        }
+    }
+
+    private boolean relayBatch() {
+        long now = System.currentTimeMillis();
+        List<OutboxEvent> events = repository.findReady(now, PageRequest.ofSize(batchSize));
+        if (events.isEmpty()) return false;
+
+        Map<OutboxAggregate, Set<Long>> blocked = blockedDocuments(events);
+        Map<OutboxAggregate, Map<Long, List<OutboxEvent>>> documents = new EnumMap<>(OutboxAggregate.class);
+        for (OutboxEvent event : events) {
+            if (blocked.getOrDefault(event.getAggregate(), Set.of()).contains(event.getAggregateId())) continue;
+            documents.computeIfAbsent(event.getAggregate(), aggregate -> new LinkedHashMap<>())
+                .computeIfAbsent(event.getAggregateId(), id -> new ArrayList<>())
+                .add(event);
+        }
+
+        Map<OutboxAggregate, Map<Long, OutboxEvent>> latest = new EnumMap<>(OutboxAggregate.class);
+        List<OutboxEvent> relayed = new ArrayList<>();
+        documents.forEach((aggregate, byId) -> write(aggregate, byId, now, latest, relayed));
+        if (relayed.isEmpty()) return false;
+
+        Set<Long> yardIds;
+        try {
+            yardIds = yardGeometryService.refresh(latest);
+        } catch (RuntimeException ex) {
+            log.warn("Unable to refresh yard geometry for {} outbox events, retrying later", relayed.size(), ex);
+            relayed.forEach(event -> postpone(event, now, ex));
+            return false;
+        }
+
+        repository.deleteAllInBatch(relayed);
+        latest.forEach(this::afterWrite);
+        yardIds.forEach(yardId -> {
+            geometryCache.invalidateYard(yardId);
+            areaIndexService.rebuild(yardId);
+            heatmapService.refreshLayout(yardId);
+        });
+        return events.size() == batchSize;
+    }
+
+    // Documents of this batch that still have an older event pending outside of it
+    private Map<OutboxAggregate, Set<Long>> blockedDocuments(List<OutboxEvent> events) {
+        Map<OutboxAggregate, Map<Long, Long>> newest = new EnumMap<>(OutboxAggregate.class);
+        Set<Long> aggregateIds = new HashSet<>();
+        List<Long> ids = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            newest.computeIfAbsent(event.getAggregate(), aggregate -> new HashMap<>()).put(event.getAggregateId(), event.getId());
+            aggregateIds.add(event.getAggregateId());
+            ids.add(event.getId());
+        }
+
+        Map<OutboxAggregate, Set<Long>> blocked = new EnumMap<>(OutboxAggregate.class);
+        long before = events.get(events.size() - 1).getId();
+        for (OutboxEvent older : repository.findPendingBefore(aggregateIds, before, ids)) {
+            Long newestId = newest.getOrDefault(older.getAggregate(), Map.of()).get(older.getAggregateId());
+            if (newestId != null && older.getId() < newestId) {
+                blocked.computeIfAbsent(older.getAggregate(), aggregate -> new HashSet<>()).add(older.getAggregateId());
+            }
+        }
+        return blocked;
+    }
+
+    // A document whose payload cannot be converted is postponed on its own, a failed bulk
+    // write postpones the documents of that collection only
+    private void write(OutboxAggregate aggregate, Map<Long, List<OutboxEvent>> documents, long now,
+            Map<OutboxAggregate, Map<Long, OutboxEvent>> latest, List<OutboxEvent> relayed) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, aggregate.getDocument());
+        Map<Long, OutboxEvent> written = new LinkedHashMap<>();
+        List<OutboxEvent> included = new ArrayList<>();
+
+        for (List<OutboxEvent> document : documents.values()) {
+            OutboxEvent event = document.get(document.size() - 1);
+            Query query = Query.query(Criteria.where(MYSQL_ID).is(event.getAggregateId()));
+            try {
+                if (event.getOperation() == OutboxOperation.DELETE) bulk.remove(query);
+                else bulk.upsert(query, toUpdate(aggregate, event));
+            } catch (RuntimeException ex) {
+                log.warn("Unable to convert outbox event {} of {} {}, retrying later", event.getId(), aggregate, event.getAggregateId(), ex);
+                document.forEach(pending -> postpone(pending, now, ex));
+                continue;
+            }
+            written.put(event.getAggregateId(), event);
+            included.addAll(document);
+        }
+        if (written.isEmpty()) return;
+
+        try {
+            bulk.execute();
+        } catch (RuntimeException ex) {
+            log.warn("Unable to relay {} outbox events of {}, retrying later", included.size(), aggregate, ex);
+            included.forEach(event -> postpone(event, now, ex));
+            return;
+        }
+
+        latest.put(aggregate, written);
+        relayed.addAll(included);
+    }
+
+    private Update toUpdate(OutboxAggregate aggregate, OutboxEvent event) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(read(aggregate, event), document);
+        document.remove("_id");
+        document.remove("_class");
+        document.remove("mongoId");
+
+        List<String> preserved = PRESERVED_FIELDS.getOrDefault(aggregate, List.of());
+        preserved.forEach(document::remove);
+
+        Update update = new Update();
+        document.forEach(update::set);
+        preserved.forEach(field -> update.setOnInsert(field, new Document()));
+        return update;
+    }
+
+    private Object read(OutboxAggregate aggregate, OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), aggregate.getDocument());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // Caches and indexes are only dropped once Mongo actually holds the new geometry
+    private void afterWrite(OutboxAggregate aggregate, Map<Long, OutboxEvent> events) {
+        for (OutboxEvent event : events.values()) {
+            Long id = event.getAggregateId();
+            switch (aggregate) {
+                case YARD -> geometryCache.invalidateYard(id);
+                case AREA -> geometryCache.invalidateArea(id);
+                case CAMERA -> {
+                    geometryCache.invalidateCamera(id);
+                    if (event.getOperation() == OutboxOperation.DELETE) calibration.evict(id);
+                    else calibration.recompute((CameraMongo) read(aggregate, event));
+                }
+            }
+        }
+    }
+
+    private void postpone(OutboxEvent event, long now, RuntimeException ex) {
+        int attempts = event.getAttempts() + 1;
+        long backoff = Math.min(maxBackoff, retryBackoff << Math.min(attempts - 1, 20));
+
+        String error = String.valueOf(ex.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH) error = error.substring(0, MAX_ERROR_LENGTH);
+
+        event.setAttempts(attempts);
+        event.setAvailableAt(now + backoff);
+        event.setLastError(error);
+
+        // Kept in the table for inspection, but neither relayed nor blocking newer events
+        if (attempts >= maxAttempts) {
+            event.setFailed(true);
+            log.error("Outbox event {} of {} {} failed {} times and will not be relayed again: {}",
+                event.getId(), event.getAggregate(), event.getAggregateId(), attempts, error);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.otaviomiklos.mottu.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.otaviomiklos.mottu.entity.OutboxEvent;
+import br.com.otaviomiklos.mottu.enums.OutboxAggregate;
+import br.com.otaviomiklos.mottu.enums.OutboxOperation;
+import br.com.otaviomiklos.mottu.repository.OutboxRepository;
+
+/**
+ * Records pending Mongo writes in the outbox table. It must run inside the caller's JPA
+ * transaction, so the MySQL change and its Mongo counterpart commit or roll back together;
+ * {@link OutboxRelay} applies them to Mongo afterwards.
+ */
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void upsert(OutboxAggregate aggregate, Long mysqlId, Long yardId, Object document) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(document);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+        repository.save(toEvent(aggregate, mysqlId, yardId, OutboxOperation.UPSERT, payload));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(OutboxAggregate aggregate, Long mysqlId, Long yardId) {
+        repository.save(toEvent(aggregate, mysqlId, yardId, OutboxOperation.DELETE, null));
+    }
+
+    private OutboxEvent toEvent(OutboxAggregate aggregate, Long mysqlId, Long yardId, OutboxOperation operation, String payload) {
+        long now = System.currentTimeMillis();
+
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregate(aggregate);
+        event.setAggregateId(mysqlId);
+        event.setYardId(yardId);
+        event.setOperation(operation);
+        event.setPayload(payload);
+        event.setCreatedAt(now);
+        event.setAvailableAt(now);
+        return event;
+    }
+}
@@ -4,14 +4,22 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import br.com.otaviomiklos.mottu.dto.apriltag.ApriltagResponse;
+import br.com.otaviomiklos.mottu.dto.page.CursorPage;
 import br.com.otaviomiklos.mottu.dto.subsidiary.SubsidiaryRequest;
 import br.com.otaviomiklos.mottu.dto.subsidiary.SubsidiaryResponse;
 import br.com.otaviomiklos.mottu.dto.subsidiary.SubsidiaryTags;
+import br.com.otaviomiklos.mottu.entity.Apriltag;
 import br.com.otaviomiklos.mottu.entity.Subsidiary;
 import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
+import br.com.otaviomiklos.mottu.mapper.ApriltagMapper;
 import br.com.otaviomiklos.mottu.mapper.SubsidiaryMapper;
+import br.com.otaviomiklos.mottu.repository.ApriltagRepository;
 import br.com.otaviomiklos.mottu.repository.SubsidiaryRepository;
 
 @Service
@@ -23,6 +31,21 @@ public class SubsidiaryService {
     @Autowired
     private SubsidiaryMapper mapper;
 
+    @Autowired
+    private ApriltagRepository apriltagRepository;
+
+    @Autowired
+    private ApriltagMapper apriltagMapper;
+
+    @Autowired
+    private KeysetPagination pagination;
+
+    @Autowired
+    private NdjsonExportService exportService;
+
+    @Autowired
+    private TagStreamService tagStream;
+
     private static final String NOT_FOUND_MESSAGE = "Não foi possível encontrar uma filial com esse ID";
 
     public SubsidiaryResponse save(SubsidiaryRequest request) {
@@ -30,9 +53,20 @@ public class SubsidiaryService {
         return mapper.toResponse(subsidiary);
     }
 
-    public List<SubsidiaryResponse> findAll() {
-        List<Subsidiary> subsidiaries = repository.findAll();
-        return mapper.toResponse(subsidiaries);
+    public CursorPage<SubsidiaryResponse> findAll(Long after, Integer limit) {
+        // Without a limit every subsidiary is returned, as the subsidiary picker expects
+        if (limit == null) {
+            List<Subsidiary> subsidiaries = repository.findByIdInOrderByIdAsc(repository.findIdsAfter(pagination.after(after), Pageable.unpaged()));
+            return new CursorPage<>(mapper.toResponse(subsidiaries), null);
+        }
+
+        int size = pagination.size(limit);
+        List<Subsidiary> subsidiaries = repository.findByIdInOrderByIdAsc(repository.findIdsAfter(pagination.after(after), pagination.pageable(size)));
+        return pagination.page(subsidiaries, size, Subsidiary::getId, mapper::toResponse);
+    }
+
+    public StreamingResponseBody exportAll() {
+        return exportService.export(repository::streamAll, mapper::toResponse);
     }
 
     public SubsidiaryResponse findById(Long id) {
@@ -59,10 +93,22 @@ public class SubsidiaryService {
         repository.deleteById(id);
     }
 
+    public CursorPage<ApriltagResponse> findTags(Long id, Long after, Integer limit) {
+        if (!repository.existsById(id)) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
+
+        int size = pagination.size(limit);
+        List<Apriltag> apriltags = apriltagRepository.findBySubsidiaryIdAndIdGreaterThanOrderByIdAsc(id, pagination.after(after), pagination.pageable(size));
+        return pagination.page(apriltags, size, Apriltag::getId, apriltagMapper::toResponse);
+    }
+
     public SubsidiaryTags findSubsidiaryYardTags(Long id) {
         Optional<Subsidiary> subsidiary = repository.findById(id);
         if (subsidiary.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
         
         return mapper.toTagResponse(subsidiary.get());
     }
+
+    public SseEmitter subscribeSubsidiaryYardTags(Long id) {
+        return tagStream.subscribeSubsidiary(id, () -> findSubsidiaryYardTags(id));
+    }
 }
@@ -0,0 +1,238 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.otaviomiklos.mottu.dto.history.BikeTrackResponse;
+import br.com.otaviomiklos.mottu.dto.history.HistoricPositionResponse;
+import br.com.otaviomiklos.mottu.dto.history.TrackPointResponse;
+import br.com.otaviomiklos.mottu.dto.history.YardHistoryResponse;
+import br.com.otaviomiklos.mottu.entity.Bike;
+import br.com.otaviomiklos.mottu.entity.yard.TagHistoryMeta;
+import br.com.otaviomiklos.mottu.entity.yard.TagPositionHistory;
+import br.com.otaviomiklos.mottu.entity.yard.TagSighting;
+import br.com.otaviomiklos.mottu.exception.InvalidRangeException;
+import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
+import br.com.otaviomiklos.mottu.repository.BikeRepository;
+import br.com.otaviomiklos.mottu.repository.yard.YardRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only history of tag positions in a Mongo time-series collection, one series per
+ * yard and tag. Ingestion only buffers the positions; a scheduled flush inserts them in
+ * batches and Mongo expires them after the configured retention. Track queries are
+ * downsampled server side so a long range never returns more than {@code max-points}.
+ */
+@Service
+public class TagHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(TagHistoryService.class);
+
+    private static final String BIKE_NOT_FOUND_MESSAGE = "Não foi possível encontrar uma moto com esse ID";
+    private static final String YARD_NOT_FOUND_MESSAGE = "Não foi possível encontrar um pátio com esse ID";
+    private static final String INVALID_RANGE_MESSAGE = "O início do intervalo deve ser anterior ao fim";
+
+    private static final String COLLECTION = TagPositionHistory.COLLECTION;
+    private static final String TIME = TagPositionHistory.TIME_FIELD;
+    private static final String SUBSIDIARY_ID = "meta.subsidiaryId";
+    private static final String YARD_ID = "meta.yardId";
+    private static final String TAG_CODE = "meta.tagCode";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private BikeRepository bikeRepository;
+
+    @Autowired
+    private YardRepository yardRepository;
+
+    @Value("${mottu.history.retention}")
+    private long retention;
+
+    @Value("${mottu.history.batch-size}")
+    private int batchSize;
+
+    @Value("${mottu.history.buffer-capacity}")
+    private int bufferCapacity;
+
+    @Value("${mottu.history.max-points}")
+    private int maxPoints;
+
+    @Value("${mottu.history.snapshot-window}")
+    private long snapshotWindow;
+
+    private BlockingQueue<TagPositionHistory> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+
+        Duration expireAfter = Duration.ofMillis(retention);
+        if (!mongoTemplate.collectionExists(COLLECTION)) {
+            mongoTemplate.createCollection(COLLECTION, CollectionOptions.timeSeries(TIME, options -> options
+                .metaField(TagPositionHistory.META_FIELD)
+                .granularity(Granularity.SECONDS)
+                .expireAfter(expireAfter)));
+        } else {
+            // The retention may have changed since the collection was created
+            mongoTemplate.getDb().runCommand(new Document("collMod", COLLECTION).append("expireAfterSeconds", expireAfter.toSeconds()));
+        }
+
+        mongoTemplate.indexOps(COLLECTION).createIndex(new Index().on(YARD_ID, Sort.Direction.ASC).on(TIME, Sort.Direction.ASC));
+        mongoTemplate.indexOps(COLLECTION).createIndex(new Index()
+            .on(SUBSIDIARY_ID, Sort.Direction.ASC).on(TAG_CODE, Sort.Direction.ASC).on(TIME, Sort.Direction.ASC));
+    }
+
+    // Only sightings the live state accepted are recorded, so the history never holds a
+    // position that was rejected as older than another camera's
+    public void record(Long yardId, Long subsidiaryId, List<TagSighting> sightings) {
+        for (TagSighting sighting : sightings) {
+            TagPositionHistory entry = new TagPositionHistory();
+            entry.setTimestamp(new Date(sighting.getTimestamp()));
+            entry.setMeta(new TagHistoryMeta(subsidiaryId, yardId, sighting.getTagCode()));
+            entry.setX(sighting.getPosition().getX());
+            entry.setY(sighting.getPosition().getY());
+            entry.setCameraId(sighting.getCameraId());
+            if (!buffer.offer(entry)) dropped.incrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mottu.history.flush-interval}")
+    public void flush() {
+        List<TagPositionHistory> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                mongoTemplate.insert(batch, TagPositionHistory.class);
+            } catch (RuntimeException ex) {
+                log.warn("Unable to write {} position history entries", batch.size(), ex);
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) log.warn("Dropped {} position history entries, the buffer is full", lost);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public BikeTrackResponse findTrack(Long bikeId, long from, long to, Long resolution) {
+        if (from >= to) throw new InvalidRangeException(INVALID_RANGE_MESSAGE);
+
+        Optional<Bike> bike = bikeRepository.findById(bikeId);
+        if (bike.isEmpty()) throw new ResourceNotFoundException(BIKE_NOT_FOUND_MESSAGE);
+
+        long step = resolution(from, to, resolution);
+
+        BikeTrackResponse response = new BikeTrackResponse();
+        response.setBikeId(bikeId);
+        response.setFrom(from);
+        response.setTo(to);
+        response.setResolution(step);
+        response.setPoints(new ArrayList<>());
+        if (bike.get().getTag() == null) return response;
+
+        String tagCode = bike.get().getTag().getCode();
+        response.setTagCode(tagCode);
+
+        Criteria criteria = Criteria.where(SUBSIDIARY_ID).is(bike.get().getTag().getSubsidiary().getId())
+            .and(TAG_CODE).is(tagCode)
+            .and(TIME).gte(new Date(from)).lt(new Date(to));
+
+        // Keeps the last position of every step-wide bucket
+        Document bucket = new Document("$subtract", List.of(
+            new Document("$toLong", "$" + TIME),
+            new Document("$mod", List.of(new Document("$toLong", "$" + TIME), step))));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(criteria),
+            Aggregation.sort(Sort.Direction.ASC, TIME),
+            context -> new Document("$group", new Document("_id", bucket)
+                .append(TIME, new Document("$last", "$" + TIME))
+                .append("yardId", new Document("$last", "$" + YARD_ID))
+                .append("x", new Document("$last", "$x"))
+                .append("y", new Document("$last", "$y"))),
+            context -> new Document("$sort", new Document("_id", 1)));
+
+        List<Document> rows = mongoTemplate.aggregate(aggregation, COLLECTION, Document.class).getMappedResults();
+        for (Document row : rows) {
+            response.getPoints().add(new TrackPointResponse(
+                row.getDate(TIME).getTime(), toLong(row.get("yardId")), toFloat(row.get("x")), toFloat(row.get("y"))));
+        }
+        return response;
+    }
+
+    public YardHistoryResponse findYardAt(Long yardId, long at, Long window) {
+        if (!yardRepository.existsById(yardId)) throw new ResourceNotFoundException(YARD_NOT_FOUND_MESSAGE);
+
+        long lookback = window != null ? window : snapshotWindow;
+        if (lookback <= 0) throw new InvalidRangeException(INVALID_RANGE_MESSAGE);
+
+        Criteria criteria = Criteria.where(YARD_ID).is(yardId)
+            .and(TIME).gt(new Date(at - lookback)).lte(new Date(at));
+
+        // Latest position of every tag seen in the window before T
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(criteria),
+            Aggregation.sort(Sort.Direction.DESC, TIME),
+            context -> new Document("$group", new Document("_id", "$" + TAG_CODE)
+                .append(TIME, new Document("$first", "$" + TIME))
+                .append("x", new Document("$first", "$x"))
+                .append("y", new Document("$first", "$y"))
+                .append("cameraId", new Document("$first", "$cameraId"))),
+            context -> new Document("$sort", new Document("_id", 1)));
+
+        List<HistoricPositionResponse> tags = new ArrayList<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, COLLECTION, Document.class).getMappedResults()) {
+            tags.add(new HistoricPositionResponse(
+                row.getString("_id"), row.getDate(TIME).getTime(), toFloat(row.get("x")), toFloat(row.get("y")), toLong(row.get("cameraId"))));
+        }
+
+        YardHistoryResponse response = new YardHistoryResponse();
+        response.setYardId(yardId);
+        response.setAt(at);
+        response.setTags(tags);
+        return response;
+    }
+
+    // The requested resolution, widened when it would return more than maxPoints
+    private long resolution(long from, long to, Long requested) {
+        long minimum = Math.max(1, (to - from + maxPoints - 1) / maxPoints);
+        if (requested == null) return minimum;
+        return Math.max(requested, minimum);
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private static float toFloat(Object value) {
+        return value instanceof Number number ? number.floatValue() : Float.NaN;
+    }
+}
@@ -0,0 +1,209 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionDelta;
+import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionResponse;
+import br.com.otaviomiklos.mottu.event.MisplacedBikeEvent;
+import br.com.otaviomiklos.mottu.event.YardTagsUpdatedEvent;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes tag positions to Server-Sent Events subscribers. Each ingestion is diffed once
+ * against the previous frame of the yard and only the changed and removed tags are sent
+ * to the yard's and the subsidiary's subscribers. Misplaced bike transitions are pushed
+ * to the same subscribers as {@code misplaced} events.
+ *
+ * <p>Every subscriber has its own bounded queue drained on a virtual thread, so a slow
+ * client only delays itself; once its queue is full it is completed and reconnects for
+ * a fresh snapshot.
+ */
+@Service
+public class TagStreamService {
+
+    private static final String SNAPSHOT_EVENT = "snapshot";
+    private static final String TAGS_EVENT = "tags";
+    private static final String MISPLACED_EVENT = "misplaced";
+
+    @Value("${mottu.stream.timeout}")
+    private long timeout;
+
+    @Value("${mottu.stream.queue-capacity}")
+    private int queueCapacity;
+
+    private final Map<Long, List<Subscriber>> yardSubscribers = new ConcurrentHashMap<>();
+    private final Map<Long, List<Subscriber>> subsidiarySubscribers = new ConcurrentHashMap<>();
+    private final Map<Long, LastFrame> lastFrames = new ConcurrentHashMap<>();
+
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tag-stream-", 0).factory());
+
+    public SseEmitter subscribeYard(Long yardId, Supplier<Object> snapshot) {
+        return subscribe(yardSubscribers, yardId, snapshot);
+    }
+
+    public SseEmitter subscribeSubsidiary(Long subsidiaryId, Supplier<Object> snapshot) {
+        return subscribe(subsidiarySubscribers, subsidiaryId, snapshot);
+    }
+
+    // Cameras of the same yard ingest concurrently, so the frame is swapped, diffed and
+    // queued under the yard's lock or a late delta could overwrite a newer one on the client
+    @EventListener
+    public void onTagsUpdated(YardTagsUpdatedEvent event) {
+        Map<String, TagPositionResponse> current = new HashMap<>();
+        event.getTags().forEach(tag -> current.put(tag.getTag().getCode(), tag));
+
+        LastFrame frame = lastFrames.computeIfAbsent(event.getYardId(), id -> new LastFrame());
+        synchronized (frame) {
+            Map<String, TagPositionResponse> previous = frame.tags;
+            frame.tags = current;
+
+            List<TagPositionResponse> changed = new ArrayList<>();
+            for (TagPositionResponse tag : current.values()) {
+                if (!tag.equals(previous.get(tag.getTag().getCode()))) changed.add(tag);
+            }
+
+            List<String> removed = new ArrayList<>();
+            for (String code : previous.keySet()) {
+                if (!current.containsKey(code)) removed.add(code);
+            }
+
+            if (changed.isEmpty() && removed.isEmpty()) return;
+
+            TagPositionDelta delta = new TagPositionDelta(event.getYardId(), changed, removed);
+            publish(event.getYardId(), event.getSubsidiaryId(), TAGS_EVENT, delta);
+        }
+    }
+
+    @EventListener
+    public void onMisplaced(MisplacedBikeEvent event) {
+        publish(event.getChange().getYardId(), event.getSubsidiaryId(), MISPLACED_EVENT, event.getChange());
+    }
+
+    public void evictYard(Long yardId) {
+        lastFrames.remove(yardId);
+        List<Subscriber> subscribers = yardSubscribers.remove(yardId);
+        if (subscribers != null) subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        yardSubscribers.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        subsidiarySubscribers.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void publish(Long yardId, Long subsidiaryId, String name, Object data) {
+        yardSubscribers.getOrDefault(yardId, List.of()).forEach(subscriber -> subscriber.offer(name, data));
+        subsidiarySubscribers.getOrDefault(subsidiaryId, List.of()).forEach(subscriber -> subscriber.offer(name, data));
+    }
+
+    // The subscriber is registered before the snapshot is read and only starts draining once
+    // the snapshot is at the head of its queue, so a frame ingested in between is never lost
+    private SseEmitter subscribe(Map<Long, List<Subscriber>> subscribers, Long key, Supplier<Object> snapshot) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(subscribers, key, emitter);
+        emitter.onCompletion(() -> subscriber.remove());
+        emitter.onTimeout(() -> subscriber.remove());
+        emitter.onError(ex -> subscriber.remove());
+
+        subscribers.computeIfAbsent(key, id -> new CopyOnWriteArrayList<>()).add(subscriber);
+        try {
+            subscriber.start(snapshot.get());
+        } catch (RuntimeException ex) {
+            subscriber.remove();
+            throw ex;
+        }
+        return emitter;
+    }
+
+    private static class LastFrame {
+        private Map<String, TagPositionResponse> tags = Map.of();
+    }
+
+    private class Subscriber {
+
+        private final Map<Long, List<Subscriber>> subscribers;
+        private final Long key;
+        private final SseEmitter emitter;
+        private final BlockingDeque<SseEventBuilder> queue = new LinkedBlockingDeque<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean(true);
+
+        private Subscriber(Map<Long, List<Subscriber>> subscribers, Long key, SseEmitter emitter) {
+            this.subscribers = subscribers;
+            this.key = key;
+            this.emitter = emitter;
+        }
+
+        private void start(Object snapshot) {
+            if (!queue.offerFirst(SseEmitter.event().name(SNAPSHOT_EVENT).data(snapshot))) {
+                overflow();
+                return;
+            }
+            draining.set(false);
+            schedule();
+        }
+
+        private void offer(String name, Object data) {
+            if (!queue.offerLast(SseEmitter.event().name(name).data(data))) {
+                overflow();
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (queue.isEmpty() || !draining.compareAndSet(false, true)) return;
+            try {
+                sender.execute(this::drain);
+            } catch (RuntimeException ex) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            SseEventBuilder event;
+            while ((event = queue.pollFirst()) != null) {
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException ex) {
+                    remove();
+                    emitter.completeWithError(ex);
+                    return;
+                }
+            }
+            draining.set(false);
+            schedule();
+        }
+
+        private void overflow() {
+            remove();
+            emitter.complete();
+        }
+
+        private void remove() {
+            queue.clear();
+            subscribers.computeIfPresent(key, (id, current) -> {
+                current.remove(this);
+                return current.isEmpty() ? null : current;
+            });
+        }
+    }
+}
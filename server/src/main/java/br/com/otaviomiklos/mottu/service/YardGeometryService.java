@@ -0,0 +1,147 @@
+package br.com.otaviomiklos.mottu.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import br.com.otaviomiklos.mottu.entity.OutboxEvent;
+import br.com.otaviomiklos.mottu.entity.area.Area;
+import br.com.otaviomiklos.mottu.entity.area.AreaMongo;
+import br.com.otaviomiklos.mottu.entity.camera.Camera;
+import br.com.otaviomiklos.mottu.entity.camera.CameraMongo;
+import br.com.otaviomiklos.mottu.entity.yard.YardGeometry;
+import br.com.otaviomiklos.mottu.entity.yard.YardMongo;
+import br.com.otaviomiklos.mottu.enums.OutboxAggregate;
+import br.com.otaviomiklos.mottu.repository.area.AreaMongoRepository;
+import br.com.otaviomiklos.mottu.repository.area.AreaRepository;
+import br.com.otaviomiklos.mottu.repository.camera.CameraMongoRepository;
+import br.com.otaviomiklos.mottu.repository.camera.CameraRepository;
+import br.com.otaviomiklos.mottu.repository.yard.YardGeometryRepository;
+import br.com.otaviomiklos.mottu.repository.yard.YardMongoRepository;
+
+/**
+ * Maintains one {@link YardGeometry} per yard: the boundary plus copies of its area and
+ * camera documents, so readers get a whole yard in a single lookup. The outbox relay
+ * rebuilds the aggregates touched by each batch once the source documents are written.
+ * Yards that have no aggregate yet are built in memory on read; only the relay writes
+ * aggregates, so a read never races with it.
+ */
+@Service
+public class YardGeometryService {
+
+    private static final String MYSQL_ID = "mysqlId";
+
+    @Autowired
+    private YardGeometryRepository repository;
+
+    @Autowired
+    private YardMongoRepository yardMongoRepository;
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private AreaMongoRepository areaMongoRepository;
+
+    @Autowired
+    private CameraRepository cameraRepository;
+
+    @Autowired
+    private CameraMongoRepository cameraMongoRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public Optional<YardGeometry> findByYardId(Long yardId) {
+        Optional<YardGeometry> geometry = repository.findByMysqlId(yardId);
+        if (geometry.isPresent()) return geometry;
+        return build(yardId);
+    }
+
+    public Map<Long, YardGeometry> findByYardIds(Collection<Long> yardIds) {
+        Map<Long, YardGeometry> geometries = repository.findByMysqlIdIn(yardIds).stream()
+            .collect(Collectors.toMap(YardGeometry::getMysqlId, Function.identity(), (first, second) -> first));
+
+        for (Long yardId : yardIds) {
+            if (!geometries.containsKey(yardId)) build(yardId).ifPresent(geometry -> geometries.put(yardId, geometry));
+        }
+        return geometries;
+    }
+
+    /**
+     * Rebuilds the aggregates affected by a batch of relayed outbox events and returns
+     * their yard ids. Besides the yard named by each event, yards still embedding a
+     * written area or camera are rebuilt, which covers entities moved between yards.
+     */
+    public Set<Long> refresh(Map<OutboxAggregate, Map<Long, OutboxEvent>> events) {
+        Set<Long> yardIds = new LinkedHashSet<>();
+        Set<Long> areaIds = new HashSet<>();
+        Set<Long> cameraIds = new HashSet<>();
+
+        events.forEach((aggregate, byId) -> byId.values().forEach(event -> {
+            if (event.getYardId() != null) yardIds.add(event.getYardId());
+            switch (aggregate) {
+                case YARD -> yardIds.add(event.getAggregateId());
+                case AREA -> areaIds.add(event.getAggregateId());
+                case CAMERA -> cameraIds.add(event.getAggregateId());
+            }
+        }));
+
+        if (!areaIds.isEmpty() || !cameraIds.isEmpty()) {
+            repository.findEmbedding(areaIds, cameraIds).forEach(geometry -> yardIds.add(geometry.getMysqlId()));
+        }
+
+        yardIds.forEach(this::rebuild);
+        return yardIds;
+    }
+
+    public Optional<YardGeometry> rebuild(Long yardId) {
+        Optional<YardGeometry> geometry = build(yardId);
+        if (geometry.isEmpty()) {
+            repository.deleteByMysqlIdIn(List.of(yardId));
+            return geometry;
+        }
+
+        Query query = Query.query(Criteria.where(MYSQL_ID).is(yardId));
+        mongoTemplate.findAndReplace(query, geometry.get(), FindAndReplaceOptions.options().upsert());
+        return geometry;
+    }
+
+    // Assembles the aggregate from the source documents without storing it
+    private Optional<YardGeometry> build(Long yardId) {
+        Optional<YardMongo> yard = yardMongoRepository.findByMysqlId(yardId);
+        if (yard.isEmpty()) return Optional.empty();
+
+        List<Long> areaIds = areaRepository.findByYardId(yardId).stream().map(Area::getId).toList();
+        List<Long> cameraIds = cameraRepository.findByYardId(yardId).stream().map(Camera::getId).toList();
+
+        YardGeometry geometry = new YardGeometry();
+        geometry.setMysqlId(yardId);
+        geometry.setBoundary(yard.get().getBoundary() != null ? yard.get().getBoundary() : new ArrayList<>());
+        geometry.setAreas(inOrder(areaIds, areaIds.isEmpty() ? List.of() : areaMongoRepository.findByMysqlIdIn(areaIds), AreaMongo::getMysqlId));
+        geometry.setCameras(inOrder(cameraIds, cameraIds.isEmpty() ? List.of() : cameraMongoRepository.findByMysqlIdIn(cameraIds), CameraMongo::getMysqlId));
+        geometry.getAreas().forEach(area -> area.setMongoId(null));
+        geometry.getCameras().forEach(camera -> camera.setMongoId(null));
+        return Optional.of(geometry);
+    }
+
+    // Keeps the MySQL order, skipping documents the relay has not written yet
+    private static <T> List<T> inOrder(List<Long> ids, List<T> documents, Function<T, Long> idOf) {
+        Map<Long, T> byId = documents.stream().collect(Collectors.toMap(idOf, Function.identity(), (first, second) -> first));
+        return ids.stream().filter(byId::containsKey).map(byId::get).collect(Collectors.toList());
+    }
+}
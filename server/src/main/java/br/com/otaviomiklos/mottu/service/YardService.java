@@ -1,22 +1,43 @@
 package br.com.otaviomiklos.mottu.service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import br.com.otaviomiklos.mottu.codec.TagFrame;
+import br.com.otaviomiklos.mottu.codec.TagFrameCodec;
+import br.com.otaviomiklos.mottu.dto.camera.CameraDetectionRequest;
+import br.com.otaviomiklos.mottu.dto.page.CursorPage;
+import br.com.otaviomiklos.mottu.dto.tagPosition.PixelTagRequest;
+import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionRequest;
+import br.com.otaviomiklos.mottu.dto.tagPosition.TagPositionResponse;
 import br.com.otaviomiklos.mottu.dto.yard.YardCameraResponse;
 import br.com.otaviomiklos.mottu.dto.yard.YardMongoRequest;
 import br.com.otaviomiklos.mottu.dto.yard.YardMongoResponse;
 import br.com.otaviomiklos.mottu.dto.yard.YardRequest;
 import br.com.otaviomiklos.mottu.dto.yard.YardResponse;
+import br.com.otaviomiklos.mottu.entity.camera.Camera;
+import br.com.otaviomiklos.mottu.entity.yard.TagSighting;
 import br.com.otaviomiklos.mottu.entity.yard.Yard;
 import br.com.otaviomiklos.mottu.entity.yard.YardMongo;
+import br.com.otaviomiklos.mottu.enums.OutboxAggregate;
+import br.com.otaviomiklos.mottu.event.YardTagsUpdatedEvent;
+import br.com.otaviomiklos.mottu.exception.CameraNotCalibratedException;
+import br.com.otaviomiklos.mottu.exception.InvalidRangeException;
 import br.com.otaviomiklos.mottu.exception.ResourceNotFoundException;
+import br.com.otaviomiklos.mottu.geo.Homography;
 import br.com.otaviomiklos.mottu.mapper.YardMapper;
 import br.com.otaviomiklos.mottu.mapper.YardMongoMapper;
-import br.com.otaviomiklos.mottu.repository.yard.YardMongoRepository;
+import br.com.otaviomiklos.mottu.repository.camera.CameraRepository;
 import br.com.otaviomiklos.mottu.repository.yard.YardRepository;
 
 @Service
@@ -25,8 +46,6 @@ public class YardService {
     @Autowired
     private YardRepository repository;
 
-    @Autowired
-    private YardMongoRepository mongoRepository;
     
     @Autowired
     private YardMapper mapper;
@@ -34,18 +53,71 @@ public class YardService {
     @Autowired
     private YardMongoMapper mongoMapper;
 
+    @Autowired
+    private KeysetPagination pagination;
+
+    @Autowired
+    private NdjsonExportService exportService;
+
+    @Autowired
+    private LiveYardStateService liveState;
+
+    @Autowired
+    private AreaIndexService areaIndexService;
+
+    @Autowired
+    private TagStreamService tagStream;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CameraRepository cameraRepository;
+
+    @Autowired
+    private CameraCalibrationService calibration;
+
+    @Autowired
+    private TagFrameCodec frameCodec;
+
+    @Autowired
+    private OutboxService outbox;
+
+    @Autowired
+    private TagHistoryService history;
+
+    @Autowired
+    private HeatmapService heatmapService;
+
+    @Autowired
+    private MisplacedBikeTracker misplacedTracker;
+
+    @Autowired
+    private AreaOccupancyCounter occupancyCounter;
+
     private static final String NOT_FOUND_MESSAGE = "Não foi possível encontrar um pátio com esse ID";
+    private static final String CAMERA_NOT_FOUND_MESSAGE = "Não foi possível encontrar uma câmera com esse ID nesse pátio";
+    private static final String UNCALIBRATED_MESSAGE = "Não foi possível calcular a transformação dessa câmera";
+    private static final String FRAME_SIZE_MESSAGE = "A largura e a altura do quadro devem ser informadas juntas";
+    private static final String OUT_OF_FRAME_MESSAGE = "Os pixels das tags devem estar dentro do quadro da câmera";
 
+    @Transactional
     public YardResponse save(YardRequest request) {
         Yard yard = repository.save(mapper.toEntity(request));
-        mongoRepository.save(mapper.toMongoEntity(request, yard.getId()));
+        YardMongo yardMongo = mapper.toMongoEntity(request, yard.getId());
+        outbox.upsert(OutboxAggregate.YARD, yard.getId(), yard.getId(), yardMongo);
+
+        return mapper.toResponse(yard, yardMongo);
+    }
 
-        return mapper.toResponse(yard);
+    public CursorPage<YardResponse> findAll(Long after, Integer limit) {
+        int size = pagination.size(limit);
+        List<Yard> yards = repository.findByIdInOrderByIdAsc(repository.findIdsAfter(pagination.after(after), pagination.pageable(size)));
+        return pagination.page(yards, size, Yard::getId, mapper::toResponse);
     }
 
-    public List<YardResponse> findAll() {
-        List<Yard> yards = repository.findAll();
-        return mapper.toResponse(yards);
+    public StreamingResponseBody exportAll() {
+        return exportService.export(repository::streamAll, mapper::toResponse);
     }
 
     public YardResponse findById(Long id) {
@@ -54,47 +126,129 @@ public class YardService {
         return mapper.toResponse(yard.get());
     }
 
+    @Transactional
     public YardResponse update(YardRequest request, Long id) {
         Optional<Yard> yard = repository.findById(id);
-        Optional<YardMongo> yardMongo = mongoRepository.findByMysqlId(id);
-        if (yard.isEmpty() || yardMongo.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
+        if (yard.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
 
         Yard newYard = mapper.toEntity(request);
         newYard.setId(id);
 
+        // Live tags are left alone, the outbox only sets the yard geometry
         YardMongo newMongoYard = mapper.toMongoEntity(request, id);
-        newMongoYard.setMongoId(yardMongo.get().getMongoId());
 
         Yard savedYard = repository.save(newYard);
-        mongoRepository.save(newMongoYard);
+        outbox.upsert(OutboxAggregate.YARD, id, id, newMongoYard);
 
-        return mapper.toResponse(savedYard);
+        return mapper.toResponse(savedYard, newMongoYard);
     }
 
+    @Transactional
     public void delete(Long id) {
         Optional<Yard> yard = repository.findById(id);
         if (yard.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
         
         repository.deleteById(id);
+        outbox.delete(OutboxAggregate.YARD, id, id);
+        liveState.evict(id);
+        areaIndexService.evict(id);
+        tagStream.evictYard(id);
+        heatmapService.delete(id);
+        misplacedTracker.evictYard(id);
+        occupancyCounter.evictYard(id);
     }
 
     // Mongo Related
     public YardMongoResponse postOrUpdatePositions(YardMongoRequest request, Long mysqlId) {
-        Optional<YardMongo> yard = mongoRepository.findByMysqlId(mysqlId);
+        List<TagPositionRequest> positions = request.getTags() != null ? request.getTags() : List.of();
+        int count = positions.size();
+        String[] codes = new String[count];
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        for (int i = 0; i < count; i++) {
+            TagPositionRequest tag = positions.get(i);
+            if (tag.getPosition() == null) continue;
+            codes[i] = tag.getTagCode();
+            xs[i] = tag.getPosition().getX();
+            ys[i] = tag.getPosition().getY();
+        }
+
+        return ingest(codes, xs, ys, count, mysqlId, request.getCameraId());
+    }
+
+    // The frame's own timestamp and sequence only drop late or retried frames of its camera,
+    // the columns are ingested as they were decoded
+    public YardMongoResponse postOrUpdatePositions(TagFrame frame, Long mysqlId, Long cameraId) {
+        if (!liveState.acceptFrame(mysqlId, cameraId, frame.getTimestamp(), frame.getSequence())) return readAllFromYard(mysqlId);
+
+        String[] codes = new String[frame.getCount()];
+        for (int i = 0; i < frame.getCount(); i++) codes[i] = frameCodec.code(frame, i);
+
+        return ingest(codes, frame.getXs(), frame.getYs(), frame.getCount(), mysqlId, cameraId);
+    }
+
+    // Sightings are stamped with the server's receive time, so every ingestion path orders
+    // them on the same clock no matter how far a camera's clock drifts
+    private YardMongoResponse ingest(String[] codes, float[] xs, float[] ys, int count, Long mysqlId, Long cameraId) {
+        Optional<Yard> yard = repository.findById(mysqlId);
         if (yard.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
 
-        YardMongo yardToSave = yard.get();
-        yardToSave.setTags(request.getTags());
+        long timestamp = System.currentTimeMillis();
+        List<TagSighting> accepted = liveState.update(mysqlId, cameraId, codes, xs, ys, count, timestamp);
+        YardMongoResponse response = mongoMapper.toMongoResponse(yard.get(), liveState.read(mysqlId));
+
+        Long subsidiaryId = yard.get().getSubsidiary().getId();
+        history.record(mysqlId, subsidiaryId, accepted);
+
+        Set<String> acceptedCodes = new HashSet<>(accepted.size() * 2);
+        accepted.forEach(sighting -> acceptedCodes.add(sighting.getTagCode()));
+        List<TagPositionResponse> detected = new ArrayList<>(accepted.size());
+        for (TagPositionResponse tag : response.getTags()) {
+            if (acceptedCodes.contains(tag.getTag().getCode())) detected.add(tag);
+        }
+        eventPublisher.publishEvent(new YardTagsUpdatedEvent(mysqlId, subsidiaryId, response.getTags(), timestamp, detected));
+        return response;
+    }
+
+    // Maps the pixel centers with the camera's cached homography, then ingests
+    // them exactly like positions already in yard coordinates
+    public YardMongoResponse postPixelPositions(CameraDetectionRequest request, Long mysqlId, Long cameraId) {
+        Optional<Camera> camera = cameraRepository.findById(cameraId);
+        if (camera.isEmpty() || camera.get().getYard() == null || !camera.get().getYard().getId().equals(mysqlId))
+            throw new ResourceNotFoundException(CAMERA_NOT_FOUND_MESSAGE);
 
-        mongoRepository.save(yardToSave);
+        Optional<Homography> homography = calibration.forCamera(cameraId);
+        if (homography.isEmpty()) throw new CameraNotCalibratedException(UNCALIBRATED_MESSAGE);
+        if ((request.getFrameWidth() == null) != (request.getFrameHeight() == null)) throw new InvalidRangeException(FRAME_SIZE_MESSAGE);
 
-        return mongoMapper.toMongoResponse(yardToSave);
+        List<PixelTagRequest> pixels = request.getTags() != null ? request.getTags() : List.of();
+        int count = pixels.size();
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = pixels.get(i).getPixel().getX();
+            ys[i] = pixels.get(i).getPixel().getY();
+        }
+
+        if (!calibration.toCanvas(xs, ys, count, request.getFrameWidth(), request.getFrameHeight())) throw new InvalidRangeException(OUT_OF_FRAME_MESSAGE);
+        homography.get().apply(xs, ys, count);
+
+        String[] codes = new String[count];
+        for (int i = 0; i < count; i++) {
+            if (Float.isNaN(xs[i]) || Float.isNaN(ys[i])) continue;
+            codes[i] = pixels.get(i).getTagCode();
+        }
+
+        return ingest(codes, xs, ys, count, mysqlId, cameraId);
     }
 
     public YardMongoResponse readAllFromYard(Long mysqlId) {
-        Optional<YardMongo> yard = mongoRepository.findByMysqlId(mysqlId);
-        if (yard.isEmpty()) throw new ResourceNotFoundException(NOT_FOUND_MESSAGE);
-        return mongoMapper.toMongoResponse(yard.get());
+        List<TagPositionRequest> tags = liveState.read(mysqlId);
+        return mongoMapper.toMongoResponse(mysqlId, tags);
+    }
+
+    public SseEmitter subscribeTags(Long mysqlId) {
+        return tagStream.subscribeYard(mysqlId, () -> readAllFromYard(mysqlId));
     }
 
     // Camera Related
@@ -0,0 +1,101 @@
+package br.com.otaviomiklos.mottu.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.otaviomiklos.mottu.exception.InvalidFrameException;
+
+class TagFrameCodecTest {
+
+	private final TagFrameCodec codec = new TagFrameCodec(new String[] { "tag16h5", "tag25h9", "tag36h11" });
+
+	@Test
+	void decodesAnEncodedFrame() {
+		byte[] body = encode(1_700_000_000_123L, 7, new int[][] { { 2, 5 }, { 0, 12 } }, new float[][] { { 1.5f, -2.25f }, { 300f, 40.75f } });
+
+		TagFrame frame = codec.decode(body);
+
+		assertEquals(1_700_000_000_123L, frame.getTimestamp());
+		assertEquals(7, frame.getSequence());
+		assertEquals(2, frame.getCount());
+
+		assertEquals("tag36h11_5", codec.code(frame, 0));
+		assertEquals(1.5f, frame.getX(0));
+		assertEquals(-2.25f, frame.getY(0));
+
+		assertEquals("tag16h5_12", codec.code(frame, 1));
+		assertEquals(300f, frame.getX(1));
+		assertEquals(40.75f, frame.getY(1));
+	}
+
+	@Test
+	void decodesAnEmptyFrame() {
+		TagFrame frame = codec.decode(encode(1L, 0, new int[0][], new float[0][]));
+
+		assertEquals(0, frame.getCount());
+	}
+
+	@Test
+	void codesAreReusedAcrossFrames() {
+		byte[] body = encode(1L, 1, new int[][] { { 1, 3 } }, new float[][] { { 0, 0 } });
+
+		assertSame(codec.code(codec.decode(body), 0), codec.code(codec.decode(body), 0));
+	}
+
+	@Test
+	void rejectsACountThatDoesNotMatchTheLength() {
+		byte[] body = encode(1L, 1, new int[][] { { 0, 1 }, { 0, 2 } }, new float[][] { { 0, 0 }, { 0, 0 } });
+
+		// One tag missing, and one trailing byte too many
+		assertThrows(InvalidFrameException.class, () -> codec.decode(Arrays.copyOf(body, body.length - 12)));
+		assertThrows(InvalidFrameException.class, () -> codec.decode(Arrays.copyOf(body, body.length + 1)));
+	}
+
+	@Test
+	void rejectsANegativeCount() {
+		byte[] body = ByteBuffer.allocate(16).order(ByteOrder.BIG_ENDIAN).putLong(1L).putInt(1).putInt(-1).array();
+
+		assertThrows(InvalidFrameException.class, () -> codec.decode(body));
+	}
+
+	@Test
+	void rejectsATruncatedHeader() {
+		assertThrows(InvalidFrameException.class, () -> codec.decode(new byte[15]));
+		assertThrows(InvalidFrameException.class, () -> codec.decode(null));
+	}
+
+	@Test
+	void unknownFamilyHasNoCode() {
+		TagFrame frame = codec.decode(encode(1L, 1, new int[][] { { 3, 1 }, { 0xFFFF, 1 } }, new float[][] { { 0, 0 }, { 0, 0 } }));
+
+		assertNull(codec.code(frame, 0));
+		assertNull(codec.code(frame, 1));
+	}
+
+	@Test
+	void tagIdIsUnsigned() {
+		TagFrame frame = codec.decode(encode(1L, 1, new int[][] { { 2, 40_000 }, { 2, 0xFFFF } }, new float[][] { { 0, 0 }, { 0, 0 } }));
+
+		assertEquals(40_000, frame.getTagId(0));
+		assertEquals("tag36h11_40000", codec.code(frame, 0));
+		assertEquals("tag36h11_65535", codec.code(frame, 1));
+	}
+
+	private static byte[] encode(long timestamp, int sequence, int[][] tags, float[][] positions) {
+		ByteBuffer buffer = ByteBuffer.allocate(16 + tags.length * 12).order(ByteOrder.BIG_ENDIAN);
+		buffer.putLong(timestamp).putInt(sequence).putInt(tags.length);
+		for (int i = 0; i < tags.length; i++) {
+			buffer.putShort((short) tags[i][0]).putShort((short) tags[i][1]);
+			buffer.putFloat(positions[i][0]).putFloat(positions[i][1]);
+		}
+		return buffer.array();
+	}
+}
@@ -0,0 +1,94 @@
+package br.com.otaviomiklos.mottu.geo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.otaviomiklos.mottu.entity.Point;
+import br.com.otaviomiklos.mottu.entity.area.AreaMongo;
+
+class AreaIndexTest {
+
+	@Test
+	void emptyIndexFindsNothing() {
+		assertEquals(0, AreaIndex.empty().size());
+		assertTrue(AreaIndex.empty().find(new Point(0, 0)).isEmpty());
+		assertSame(AreaIndex.empty(), AreaIndex.of(List.of()));
+	}
+
+	@Test
+	void areasWithoutAPolygonAreSkipped() {
+		AreaMongo noBoundary = area(1L, null);
+		AreaMongo line = area(2L, List.of(new Point(0, 0), new Point(10, 10)));
+		AreaMongo square = rectangle(3L, 0, 0, 10, 10);
+
+		AreaIndex index = AreaIndex.of(List.of(noBoundary, line, square));
+
+		assertEquals(1, index.size());
+		assertSame(square, index.find(new Point(5, 5)).orElseThrow());
+	}
+
+	@Test
+	void findsTheAreaContainingThePoint() {
+		AreaMongo left = rectangle(1L, 0, 0, 10, 10);
+		AreaMongo right = rectangle(2L, 20, 0, 30, 10);
+		AreaMongo triangle = area(3L, List.of(new Point(0, 20), new Point(30, 20), new Point(0, 50)));
+
+		AreaIndex index = AreaIndex.of(List.of(left, right, triangle));
+
+		assertSame(left, index.find(new Point(5, 5)).orElseThrow());
+		assertSame(right, index.find(new Point(25, 5)).orElseThrow());
+		assertSame(triangle, index.find(new Point(5, 25)).orElseThrow());
+		// Inside the triangle's box but outside the triangle itself
+		assertTrue(index.find(new Point(28, 48)).isEmpty());
+		// Between the areas and outside every box
+		assertTrue(index.find(new Point(15, 5)).isEmpty());
+		assertTrue(index.find(new Point(-1, 5)).isEmpty());
+		assertTrue(index.find(new Point(100, 100)).isEmpty());
+	}
+
+	@Test
+	void firstOverlappingAreaWins() {
+		AreaMongo outer = rectangle(1L, 0, 0, 100, 100);
+		AreaMongo inner = rectangle(2L, 40, 40, 60, 60);
+
+		assertSame(outer, AreaIndex.of(List.of(outer, inner)).find(new Point(50, 50)).orElseThrow());
+		assertSame(inner, AreaIndex.of(List.of(inner, outer)).find(new Point(50, 50)).orElseThrow());
+	}
+
+	@Test
+	void matchesALinearScan() {
+		Random random = new Random(42);
+		List<AreaMongo> areas = new ArrayList<>();
+		for (long id = 0; id < 200; id++) {
+			float x = random.nextFloat() * 1000;
+			float y = random.nextFloat() * 1000;
+			areas.add(rectangle(id, x, y, x + 5 + random.nextFloat() * 80, y + 5 + random.nextFloat() * 80));
+		}
+
+		AreaIndex index = AreaIndex.of(areas);
+		for (int i = 0; i < 5000; i++) {
+			Point point = new Point(random.nextFloat() * 1100 - 50, random.nextFloat() * 1100 - 50);
+			Optional<AreaMongo> expected = areas.stream().filter(area -> area.checkInside(point)).findFirst();
+			assertEquals(expected, index.find(point));
+		}
+	}
+
+	private static AreaMongo rectangle(Long id, float minX, float minY, float maxX, float maxY) {
+		return area(id, List.of(new Point(minX, minY), new Point(maxX, minY), new Point(maxX, maxY), new Point(minX, maxY)));
+	}
+
+	private static AreaMongo area(Long id, List<Point> boundary) {
+		AreaMongo area = new AreaMongo();
+		area.setMysqlId(id);
+		area.setBoundary(boundary);
+		return area;
+	}
+}
@@ -0,0 +1,127 @@
+package br.com.otaviomiklos.mottu.geo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.otaviomiklos.mottu.entity.Point;
+
+class HomographyTest {
+
+	private static final double[][] PROJECTIVE = {
+		{ 0.8, 0.1, 12 },
+		{ -0.05, 0.9, 4 },
+		{ 0.0004, 0.0002, 1 }
+	};
+
+	@Test
+	void identityMapsPointsToThemselves() {
+		List<Point> points = List.of(new Point(0, 0), new Point(640, 0), new Point(640, 480), new Point(0, 480));
+
+		Homography homography = Homography.solve(points, points).orElseThrow();
+
+		double[][] matrix = homography.matrix();
+		for (int r = 0; r < 3; r++) {
+			for (int c = 0; c < 3; c++) assertEquals(r == c ? 1 : 0, matrix[r][c], 1e-6);
+		}
+		assertMaps(homography, new float[] { 320, 17.5f }, new float[] { 240, 401 }, new float[] { 320, 17.5f }, new float[] { 240, 401 }, 1e-3);
+	}
+
+	@Test
+	void fourPointsGiveTheExactProjectiveTransform() {
+		List<Point> source = List.of(new Point(0, 0), new Point(640, 0), new Point(640, 480), new Point(0, 480));
+
+		Homography homography = Homography.solve(source, project(source)).orElseThrow();
+
+		double[][] matrix = homography.matrix();
+		for (int r = 0; r < 3; r++) {
+			for (int c = 0; c < 3; c++) assertEquals(PROJECTIVE[r][c], matrix[r][c], 1e-5);
+		}
+
+		float[] xs = { 100, 320, 600 };
+		float[] ys = { 50, 240, 400 };
+		List<Point> expected = project(List.of(new Point(100, 50), new Point(320, 240), new Point(600, 400)));
+		assertMaps(homography, xs, ys, xs(expected), ys(expected), 1e-2);
+	}
+
+	@Test
+	void morePointsAreFittedByLeastSquares() {
+		List<Point> source = new ArrayList<>();
+		for (int x = 0; x <= 640; x += 160) {
+			for (int y = 0; y <= 480; y += 160) source.add(new Point(x, y));
+		}
+
+		// Alternating half-pixel noise, which cancels out in the fit
+		List<Point> target = new ArrayList<>();
+		List<Point> exact = project(source);
+		for (int i = 0; i < exact.size(); i++) {
+			float noise = i % 2 == 0 ? 0.5f : -0.5f;
+			target.add(new Point(exact.get(i).getX() + noise, exact.get(i).getY() - noise));
+		}
+
+		Homography homography = Homography.solve(source, target).orElseThrow();
+
+		float[] xs = { 200, 500 };
+		float[] ys = { 100, 300 };
+		List<Point> expected = project(List.of(new Point(200, 100), new Point(500, 300)));
+		assertMaps(homography, xs, ys, xs(expected), ys(expected), 1);
+	}
+
+	@Test
+	void collinearPointsHaveNoTransform() {
+		List<Point> source = List.of(new Point(0, 0), new Point(10, 10), new Point(20, 20), new Point(30, 30));
+		List<Point> target = List.of(new Point(0, 0), new Point(1, 0), new Point(1, 1), new Point(0, 1));
+
+		assertTrue(Homography.solve(source, target).isEmpty());
+	}
+
+	@Test
+	void tooFewOrMismatchedPointsHaveNoTransform() {
+		List<Point> three = List.of(new Point(0, 0), new Point(1, 0), new Point(1, 1));
+		List<Point> four = List.of(new Point(0, 0), new Point(1, 0), new Point(1, 1), new Point(0, 1));
+
+		assertEquals(Optional.empty(), Homography.solve(three, three));
+		assertEquals(Optional.empty(), Homography.solve(four, three));
+		assertEquals(Optional.empty(), Homography.solve(null, four));
+	}
+
+	private static List<Point> project(List<Point> points) {
+		List<Point> projected = new ArrayList<>();
+		for (Point point : points) {
+			double x = point.getX(), y = point.getY();
+			double w = PROJECTIVE[2][0] * x + PROJECTIVE[2][1] * y + PROJECTIVE[2][2];
+			projected.add(new Point(
+				(float) ((PROJECTIVE[0][0] * x + PROJECTIVE[0][1] * y + PROJECTIVE[0][2]) / w),
+				(float) ((PROJECTIVE[1][0] * x + PROJECTIVE[1][1] * y + PROJECTIVE[1][2]) / w)));
+		}
+		return projected;
+	}
+
+	private static float[] xs(List<Point> points) {
+		float[] xs = new float[points.size()];
+		for (int i = 0; i < xs.length; i++) xs[i] = points.get(i).getX();
+		return xs;
+	}
+
+	private static float[] ys(List<Point> points) {
+		float[] ys = new float[points.size()];
+		for (int i = 0; i < ys.length; i++) ys[i] = points.get(i).getY();
+		return ys;
+	}
+
+	private static void assertMaps(Homography homography, float[] xs, float[] ys, float[] expectedXs, float[] expectedYs, double delta) {
+		float[] mappedXs = xs.clone();
+		float[] mappedYs = ys.clone();
+		homography.apply(mappedXs, mappedYs, mappedXs.length);
+
+		for (int i = 0; i < mappedXs.length; i++) {
+			assertEquals(expectedXs[i], mappedXs[i], delta);
+			assertEquals(expectedYs[i], mappedYs[i], delta);
+		}
+	}
+}
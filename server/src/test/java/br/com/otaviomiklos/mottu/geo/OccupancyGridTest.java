@@ -0,0 +1,110 @@
+package br.com.otaviomiklos.mottu.geo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.otaviomiklos.mottu.entity.Point;
+
+class OccupancyGridTest {
+
+	private static final List<Point> SQUARE = List.of(new Point(10, 20), new Point(50, 20), new Point(50, 60), new Point(10, 60));
+
+	@Test
+	void coversTheBoundingBoxOfTheBoundary() {
+		OccupancyGrid grid = OccupancyGrid.over(SQUARE, 10, 1000).orElseThrow();
+
+		assertEquals(10, grid.getOriginX());
+		assertEquals(20, grid.getOriginY());
+		assertEquals(10, grid.getCellSize());
+		assertEquals(4, grid.getCols());
+		assertEquals(4, grid.getRows());
+	}
+
+	@Test
+	void widensCellsUntilTheGridFits() {
+		OccupancyGrid grid = OccupancyGrid.over(SQUARE, 1, 100).orElseThrow();
+
+		// 40x40 at 1, 20x20 at 2, 10x10 at 4 is the first one within 100 cells
+		assertEquals(4, grid.getCellSize());
+		assertEquals(10, grid.getCols());
+		assertEquals(10, grid.getRows());
+	}
+
+	@Test
+	void boundaryWithoutAreaHasNoGrid() {
+		assertTrue(OccupancyGrid.over(null, 10, 1000).isEmpty());
+		assertTrue(OccupancyGrid.over(List.of(new Point(0, 0), new Point(10, 10)), 10, 1000).isEmpty());
+		assertTrue(OccupancyGrid.over(List.of(new Point(0, 0), new Point(10, 0), new Point(20, 0)), 10, 1000).isEmpty());
+		assertTrue(OccupancyGrid.over(SQUARE, 0, 1000).isEmpty());
+	}
+
+	@Test
+	void countsSightingsInTheirCell() {
+		OccupancyGrid grid = OccupancyGrid.over(SQUARE, 10, 1000).orElseThrow();
+
+		assertTrue(grid.add(10, 20));
+		assertTrue(grid.add(15, 25));
+		assertTrue(grid.add(35, 45));
+		// The far edge belongs to the last cell
+		assertTrue(grid.add(50, 60));
+
+		long[] counts = grid.copy();
+		assertEquals(2, counts[0]);
+		assertEquals(1, counts[2 * 4 + 2]);
+		assertEquals(1, counts[3 * 4 + 3]);
+		assertEquals(4, sum(counts));
+	}
+
+	@Test
+	void ignoresSightingsOutsideTheGrid() {
+		OccupancyGrid grid = OccupancyGrid.over(SQUARE, 10, 1000).orElseThrow();
+
+		assertFalse(grid.add(9.9f, 30));
+		assertFalse(grid.add(30, 60.1f));
+		assertFalse(grid.add(Float.NaN, 30));
+		assertEquals(0, sum(grid.copy()));
+	}
+
+	@Test
+	void zoomFoldsCellsTwoByTwo() {
+		// 3x3 grid, so the coarser levels have a partial last row and column
+		OccupancyGrid grid = OccupancyGrid.over(List.of(new Point(0, 0), new Point(30, 0), new Point(30, 30)), 10, 1000).orElseThrow();
+		for (int row = 0; row < 3; row++) {
+			for (int col = 0; col < 3; col++) grid.add(col * 10 + 5, row * 10 + 5);
+		}
+		grid.add(5, 5);
+
+		long[] counts = grid.copy();
+		assertArrayEquals(counts, grid.zoom(counts, 0));
+
+		assertEquals(2, grid.zoomed(3, 1));
+		assertArrayEquals(new long[] { 5, 2, 2, 1 }, grid.zoom(counts, 1));
+		assertArrayEquals(new long[] { 10 }, grid.zoom(counts, 2));
+	}
+
+	@Test
+	void restoresCountsOfTheSameLayout() {
+		OccupancyGrid grid = OccupancyGrid.over(SQUARE, 10, 1000).orElseThrow();
+		grid.add(15, 25);
+		long[] counts = grid.copy();
+
+		OccupancyGrid restored = OccupancyGrid.restore(grid.getOriginX(), grid.getOriginY(), grid.getCellSize(), grid.getCols(), grid.getRows(), counts);
+		counts[0] = 100;
+
+		assertTrue(restored.sameLayout(10, 20, 10, 4, 4));
+		assertFalse(restored.sameLayout(10, 20, 20, 2, 2));
+		assertEquals(1, restored.copy()[0]);
+	}
+
+	private static long sum(long[] counts) {
+		long total = 0;
+		for (long count : counts) total += count;
+		return total;
+	}
+}
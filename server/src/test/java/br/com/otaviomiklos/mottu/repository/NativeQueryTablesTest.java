@@ -0,0 +1,89 @@
+package br.com.otaviomiklos.mottu.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.model.naming.Identifier;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.util.ClassUtils;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+class NativeQueryTablesTest {
+
+	private static final String BASE_PACKAGE = "br.com.otaviomiklos.mottu";
+	private static final Pattern TABLE = Pattern.compile("\\b(?:from|join|update|into)\\s+([a-zA-Z_][a-zA-Z0-9_]*)", Pattern.CASE_INSENSITIVE);
+
+	// Native queries skip the naming strategy, so they have to use the physical name that
+	// MySQL sees, which is case sensitive on Linux
+	@Test
+	void nativeQueriesUsePhysicalTableNames() throws Exception {
+		Set<String> tables = physicalTableNames();
+		List<String> queries = nativeQueries();
+
+		assertFalse(queries.isEmpty());
+		for (String query : queries) {
+			Matcher matcher = TABLE.matcher(query);
+			while (matcher.find()) {
+				String table = matcher.group(1);
+				// Derived tables are referenced by their alias
+				if (query.contains(") " + table)) continue;
+				assertTrue(tables.contains(table), () -> table + " is not a physical table name in: " + query);
+			}
+		}
+	}
+
+	private static Set<String> physicalTableNames() throws Exception {
+		CamelCaseToUnderscoresNamingStrategy strategy = new CamelCaseToUnderscoresNamingStrategy();
+		Set<String> tables = new HashSet<>();
+
+		ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+		scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+		for (BeanDefinition definition : scanner.findCandidateComponents(BASE_PACKAGE)) {
+			Table table = load(definition).getAnnotation(Table.class);
+			if (table == null || table.name().isEmpty()) continue;
+			tables.add(strategy.toPhysicalTableName(Identifier.toIdentifier(table.name()), null).getText());
+		}
+		return tables;
+	}
+
+	private static List<String> nativeQueries() throws Exception {
+		ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+			@Override
+			protected boolean isCandidateComponent(AnnotatedBeanDefinition definition) {
+				return definition.getMetadata().isInterface();
+			}
+		};
+		scanner.addIncludeFilter(new AssignableTypeFilter(JpaRepository.class));
+
+		List<String> queries = new ArrayList<>();
+		for (BeanDefinition definition : scanner.findCandidateComponents(BASE_PACKAGE)) {
+			for (Method method : load(definition).getDeclaredMethods()) {
+				Query query = method.getAnnotation(Query.class);
+				if (query != null && query.nativeQuery()) queries.add(query.value());
+			}
+		}
+		return queries;
+	}
+
+	private static Class<?> load(BeanDefinition definition) throws Exception {
+		return ClassUtils.forName(definition.getBeanClassName(), NativeQueryTablesTest.class.getClassLoader());
+	}
+}
@@ -0,0 +1,71 @@
+package br.com.otaviomiklos.mottu.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.otaviomiklos.mottu.dto.page.CursorPage;
+
+class KeysetPaginationTest {
+
+	private KeysetPagination pagination;
+
+	@BeforeEach
+	void setUp() {
+		pagination = new KeysetPagination();
+		ReflectionTestUtils.setField(pagination, "defaultLimit", 100);
+		ReflectionTestUtils.setField(pagination, "maxLimit", 500);
+	}
+
+	@Test
+	void sizeFallsBackToDefaultAndIsCapped() {
+		assertEquals(100, pagination.size(null));
+		assertEquals(100, pagination.size(0));
+		assertEquals(100, pagination.size(-5));
+		assertEquals(20, pagination.size(20));
+		assertEquals(500, pagination.size(10_000));
+	}
+
+	@Test
+	void afterStartsFromZero() {
+		assertEquals(0L, pagination.after(null));
+		assertEquals(42L, pagination.after(42L));
+	}
+
+	@Test
+	void pageableAsksForOneExtraRow() {
+		assertEquals(11, pagination.pageable(10).getPageSize());
+	}
+
+	@Test
+	void extraRowYieldsNextCursor() {
+		CursorPage<Long> page = pagination.page(List.of(1L, 2L, 3L, 4L), 3, Function.identity(), rows -> rows);
+
+		assertEquals(List.of(1L, 2L, 3L), page.getItems());
+		assertEquals(3L, page.getNextCursor());
+		assertEquals("3", page.headers().getFirst(CursorPage.NEXT_CURSOR_HEADER));
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		CursorPage<Long> page = pagination.page(List.of(1L, 2L), 3, Function.identity(), rows -> rows);
+
+		assertEquals(List.of(1L, 2L), page.getItems());
+		assertNull(page.getNextCursor());
+		assertNull(page.headers().getFirst(CursorPage.NEXT_CURSOR_HEADER));
+	}
+
+	@Test
+	void emptyPageHasNoCursor() {
+		CursorPage<Long> page = pagination.page(List.of(), 3, Function.identity(), rows -> rows);
+
+		assertEquals(List.of(), page.getItems());
+		assertNull(page.getNextCursor());
+	}
+}